@@ -0,0 +1,78 @@
+package com.valueguard.benchmarks;
+
+import com.valueguard.entity.Comment;
+import com.valueguard.entity.Incident;
+import com.valueguard.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基准测试用的样本数据，字段长度接近线上数据。
+ */
+public final class BenchmarkData {
+
+    private static final String[] CATEGORIES = {"虚假宣传", "退款纠纷", "服务态度", "霸王条款"};
+
+    private BenchmarkData() {
+    }
+
+    public static User user(int i) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return new User(
+                UUID.randomUUID().toString(),
+                "user" + i + "@example.com",
+                "$2a$10$abcdefghijklmnopqrstuv",
+                "用户" + i,
+                "https://example.com/avatar/" + i + ".png",
+                "+86 138-0013-" + String.format("%04d", i % 10000),
+                now,
+                now
+        );
+    }
+
+    public static Incident incident(int i) {
+        User user = user(i);
+        Incident incident = new Incident();
+        incident.setId(UUID.randomUUID().toString());
+        incident.setCompanyName("示例公司" + (i % 50));
+        incident.setCompanyId(UUID.randomUUID().toString());
+        incident.setTitle("关于订单 " + i + " 的投诉");
+        incident.setDescription("下单后迟迟未发货，联系客服多次未得到答复，要求退款也被拒绝。".repeat(4));
+        incident.setCategories(new ArrayList<>(List.of(CATEGORIES[i % CATEGORIES.length],
+                CATEGORIES[(i + 1) % CATEGORIES.length])));
+        incident.setUserId(user.getUid());
+        incident.setUser(user);
+        incident.setDate(LocalDateTime.of(2024, 1, 1, 12, 0).minusMinutes(i));
+        incident.setCreatedAt(incident.getDate());
+        incident.setUpdatedAt(incident.getDate());
+        return incident;
+    }
+
+    public static List<Incident> incidents(int count) {
+        List<Incident> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            incidents.add(incident(i));
+        }
+        return incidents;
+    }
+
+    public static Comment comment(int i) {
+        User user = user(i);
+        Comment comment = new Comment();
+        comment.setId(UUID.randomUUID().toString());
+        comment.setText("我也遇到了同样的问题，客服一直推脱。");
+        comment.setUserId(user.getUid());
+        comment.setIncidentId(UUID.randomUUID().toString());
+        comment.setUser(user);
+        comment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).minusMinutes(i));
+        comment.setUpdatedAt(comment.getCreatedAt());
+        return comment;
+    }
+
+    public static String[] categories() {
+        return CATEGORIES.clone();
+    }
+}
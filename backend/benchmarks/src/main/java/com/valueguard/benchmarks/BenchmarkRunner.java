@@ -0,0 +1,28 @@
+package com.valueguard.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试入口。参数原样传给 JMH；未指定结果格式时默认输出 JSON 到 target/jmh-result.json，
+ * 便于按提交对比结果。
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add("-rf");
+            jmhArgs.add("json");
+        }
+        if (!jmhArgs.contains("-rff")) {
+            jmhArgs.add("-rff");
+            jmhArgs.add(DEFAULT_RESULT_FILE);
+        }
+        new java.io.File(DEFAULT_RESULT_FILE).getParentFile().mkdirs();
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
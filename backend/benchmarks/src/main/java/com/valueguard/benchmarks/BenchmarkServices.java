@@ -0,0 +1,39 @@
+package com.valueguard.benchmarks;
+
+import com.valueguard.config.ArchiveProperties;
+import com.valueguard.config.CacheProperties;
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.service.IncidentArchiveService;
+import com.valueguard.service.IncidentPageCache;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 多个基准测试共用的服务组装：不开启归档，列表只读热表；关闭列表页缓存，每次调用都完整执行加载。
+ */
+public final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    public static IncidentArchiveService archiveService(IncidentMapper incidentMapper, MeterRegistry meterRegistry) {
+        return ServiceFixture.of(IncidentArchiveService::new)
+                .with("incidentMapper", incidentMapper)
+                .with("archiveProperties", new ArchiveProperties())
+                .with("meterRegistry", meterRegistry)
+                .unused("archiveMapper")
+                .build();
+    }
+
+    public static IncidentPageCache disabledPageCache(MeterRegistry meterRegistry) {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getIncidentPages().setEnabled(false);
+        return ServiceFixture.of(IncidentPageCache::new)
+                .with("cacheProperties", cacheProperties)
+                .with("meterRegistry", meterRegistry)
+                .with("taskExecutor", (Executor) Runnable::run)
+                .unused("transactionManager")
+                .build();
+    }
+}
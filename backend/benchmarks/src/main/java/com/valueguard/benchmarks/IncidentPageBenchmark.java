@@ -0,0 +1,103 @@
+package com.valueguard.benchmarks;
+
+import com.valueguard.dto.PageCursor;
+import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentCategory;
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.service.IncidentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件列表分页中在 Java 侧完成的部分：分类回填、总页数、下一页游标和 DTO 转换。
+ * 经由 IncidentService.getIncidents 调用，数据库访问由内存桩替代，列表页缓存关闭，只测应用自身的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncidentPageBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private IncidentService incidentService;
+
+    private String cursor;
+
+    @Setup
+    public void setup() {
+        List<Incident> incidents = BenchmarkData.incidents(pageSize);
+        List<IncidentCategory> categories = new ArrayList<>();
+        for (Incident incident : incidents) {
+            for (String category : incident.getCategories()) {
+                categories.add(new IncidentCategory(incident.getId(), category));
+            }
+        }
+
+        IncidentMapper incidentMapper = ServiceFixture.stub(IncidentMapper.class, Map.of(
+                // 每次返回新实体，与从数据库读出一致
+                "findAll", args -> copies(incidents),
+                "countAll", args -> 10_000L,
+                "findCategoriesByIncidentIds", args -> categories));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        incidentService = ServiceFixture.of(IncidentService::new)
+                .with("incidentMapper", incidentMapper)
+                .with("incidentArchiveService", BenchmarkServices.archiveService(incidentMapper, meterRegistry))
+                .with("incidentPageCache", BenchmarkServices.disabledPageCache(meterRegistry))
+                .with("meterRegistry", meterRegistry)
+                .unused("userCacheService", "companyService", "transactionTemplate", "reviewRequestMapper",
+                        "categoryCountMapper", "searchIndex", "eventPublisher")
+                .build();
+
+        Incident last = incidents.get(incidents.size() - 1);
+        cursor = new PageCursor(last.getDate(), last.getId()).encode();
+    }
+
+    @Benchmark
+    public PageResponse<IncidentResponse> loadFirstPage() {
+        return incidentService.getIncidents(1, pageSize, null, "date,desc", null);
+    }
+
+    @Benchmark
+    public PageResponse<IncidentResponse> loadPageWithCursor() {
+        return incidentService.getIncidents(2, pageSize, null, "date,desc", cursor);
+    }
+
+    private static List<Incident> copies(List<Incident> incidents) {
+        List<Incident> page = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) {
+            Incident copy = new Incident();
+            copy.setId(incident.getId());
+            copy.setCompanyName(incident.getCompanyName());
+            copy.setCompanyId(incident.getCompanyId());
+            copy.setTitle(incident.getTitle());
+            copy.setDescription(incident.getDescription());
+            copy.setUserId(incident.getUserId());
+            copy.setUser(incident.getUser());
+            copy.setDate(incident.getDate());
+            page.add(copy);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,70 @@
+package com.valueguard.benchmarks;
+
+import com.valueguard.config.JwtProperties;
+import com.valueguard.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil 的签发、解析和校验。cacheMaxSize=0 时每次都完整验签，用于和缓存命中对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"0", "10000"})
+    private long cacheMaxSize;
+
+    private JwtUtil jwtUtil;
+
+    private String uid;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmark-secret-key-that-is-long-enough-for-hs256");
+        properties.setExpiration(86400000L);
+        properties.setCacheMaxSize(cacheMaxSize);
+
+        jwtUtil = ServiceFixture.of(JwtUtil::new)
+                .with("jwtProperties", properties)
+                .with("meterRegistry", new SimpleMeterRegistry())
+                .build();
+
+        uid = "3f2b9c1e-8d4a-4f6b-9e2d-1a7c5b8e0f34";
+        token = jwtUtil.generateToken(uid);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(uid);
+    }
+
+    @Benchmark
+    public String extractUid() {
+        return jwtUtil.extractUid(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, uid);
+    }
+}
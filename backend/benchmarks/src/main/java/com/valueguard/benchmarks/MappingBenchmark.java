@@ -0,0 +1,123 @@
+package com.valueguard.benchmarks;
+
+import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.comment.CommentResponse;
+import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.entity.Comment;
+import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentCategory;
+import com.valueguard.mapper.CommentMapper;
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.service.CommentService;
+import com.valueguard.service.CompanyService;
+import com.valueguard.service.IncidentArchiveService;
+import com.valueguard.service.IncidentPageCache;
+import com.valueguard.service.IncidentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 三个服务的读接口中实体到响应 DTO 的转换：事件详情、公司事件列表和评论列表各一页。
+ * 经由各服务的公开方法调用，Mapper 由直接返回固定实体的内存桩替代，列表页缓存关闭。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private IncidentService incidentService;
+
+    private CompanyService companyService;
+
+    private CommentService commentService;
+
+    private Incident incident;
+
+    @Setup
+    public void setup() {
+        incident = BenchmarkData.incident(1);
+        List<Incident> companyIncidents = BenchmarkData.incidents(PAGE_SIZE);
+        List<IncidentCategory> categories = new ArrayList<>();
+        for (Incident item : companyIncidents) {
+            for (String category : item.getCategories()) {
+                categories.add(new IncidentCategory(item.getId(), category));
+            }
+        }
+        for (String category : incident.getCategories()) {
+            categories.add(new IncidentCategory(incident.getId(), category));
+        }
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            comments.add(BenchmarkData.comment(i));
+        }
+
+        IncidentMapper incidentMapper = ServiceFixture.stub(IncidentMapper.class, Map.of(
+                "findById", args -> incident,
+                "countByCompanyName", args -> 1_000L,
+                "findByCompanyName", args -> companyIncidents,
+                "findCategoriesByIncidentIds", args -> categories));
+        CommentMapper commentMapper = ServiceFixture.stub(CommentMapper.class, Map.of(
+                "countByIncidentId", args -> 1_000L,
+                "findPageByIncidentId", args -> comments));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IncidentArchiveService archiveService = BenchmarkServices.archiveService(incidentMapper, meterRegistry);
+        IncidentPageCache pageCache = BenchmarkServices.disabledPageCache(meterRegistry);
+
+        incidentService = ServiceFixture.of(IncidentService::new)
+                .with("incidentMapper", incidentMapper)
+                .with("incidentArchiveService", archiveService)
+                .with("incidentPageCache", pageCache)
+                .with("meterRegistry", meterRegistry)
+                .unused("userCacheService", "companyService", "transactionTemplate", "reviewRequestMapper",
+                        "categoryCountMapper", "searchIndex", "eventPublisher")
+                .build();
+        companyService = ServiceFixture.of(CompanyService::new)
+                .with("incidentMapper", incidentMapper)
+                .with("incidentArchiveService", archiveService)
+                .with("incidentPageCache", pageCache)
+                .unused("companyMapper", "companyCacheService", "companyIncidentCounter")
+                .build();
+        commentService = ServiceFixture.of(CommentService::new)
+                .with("commentMapper", commentMapper)
+                .with("incidentArchiveService", archiveService)
+                .with("meterRegistry", meterRegistry)
+                .unused("userCacheService", "incidentMapper", "writeBehindQueue", "archiveMapper",
+                        "transactionTemplate")
+                .build();
+    }
+
+    @Benchmark
+    public IncidentResponse incidentDetail() {
+        return incidentService.getIncidentById(incident.getId());
+    }
+
+    @Benchmark
+    public PageResponse<IncidentResponse> companyIncidentPage() {
+        return companyService.getCompanyIncidents(incident.getCompanyName(), 1, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageResponse<CommentResponse> commentPage() {
+        return commentService.getComments(incident.getId(), 1, PAGE_SIZE, null, null);
+    }
+}
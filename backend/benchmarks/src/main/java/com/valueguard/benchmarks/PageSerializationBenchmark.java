@@ -0,0 +1,81 @@
+package com.valueguard.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valueguard.dto.PageCursor;
+import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.auth.UserResponse;
+import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.entity.Incident;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 事件列表响应 PageResponse&lt;IncidentResponse&gt; 的 JSON 序列化。
+ * ObjectMapper 按 application.yml 中的 spring.jackson 配置构建，与线上一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private PageResponse<IncidentResponse> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .timeZone("Asia/Shanghai")
+                .simpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                .build();
+        List<Incident> incidents = BenchmarkData.incidents(pageSize);
+        List<IncidentResponse> content = incidents.stream()
+                .map(incident -> new IncidentResponse(
+                        incident.getId(),
+                        incident.getCompanyName(),
+                        incident.getCompanyId(),
+                        incident.getTitle(),
+                        incident.getDescription(),
+                        incident.getCategories(),
+                        incident.getUserId(),
+                        new UserResponse(
+                                incident.getUser().getUid(),
+                                incident.getUser().getEmail(),
+                                incident.getUser().getDisplayName(),
+                                incident.getUser().getPhotoURL()
+                        ),
+                        incident.getDate(),
+                        incident.getCommentCount(),
+                        incident.getLastCommentAt()
+                ))
+                .collect(Collectors.toList());
+        Incident last = incidents.get(incidents.size() - 1);
+        page = new PageResponse<>(content, 10_000L, 10_000 / pageSize, 1, pageSize,
+                new PageCursor(last.getDate(), last.getId()).encode());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
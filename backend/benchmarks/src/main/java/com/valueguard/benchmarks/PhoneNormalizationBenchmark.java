@@ -0,0 +1,59 @@
+package com.valueguard.benchmarks;
+
+import com.valueguard.entity.User;
+import com.valueguard.mapper.UserMapper;
+import com.valueguard.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthService.resolveEmail：手机号账号的规范化和查找登录邮箱，邮箱账号直接返回，作为对照。
+ * UserMapper 由内存桩替代。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhoneNormalizationBenchmark {
+
+    @Param({"13800138000", "+86 138-0013-8000", "user1@example.com"})
+    private String account;
+
+    private AuthService authService;
+
+    @Setup
+    public void setup() {
+        User user = BenchmarkData.user(1);
+        UserMapper userMapper = ServiceFixture.stub(UserMapper.class, Map.of(
+                "findByPhoneNumber", args -> user));
+
+        authService = ServiceFixture.of(AuthService::new)
+                .with("userMapper", userMapper)
+                // 只在初始化占位哈希时使用，取最低 cost
+                .with("passwordEncoder", new BCryptPasswordEncoder(4))
+                .with("meterRegistry", new SimpleMeterRegistry())
+                .unused("userCacheService", "jwtUtil")
+                .build();
+    }
+
+    @Benchmark
+    public String resolveEmail() {
+        return authService.resolveEmail(account);
+    }
+}
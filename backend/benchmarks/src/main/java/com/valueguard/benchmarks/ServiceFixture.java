@@ -0,0 +1,134 @@
+package com.valueguard.benchmarks;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 在没有 Spring 容器时组装被测组件：按字段名提供依赖，再像容器一样调用 @PostConstruct 方法。
+ * 每个 @Autowired 字段都必须提供或用 {@link #unused} 声明不会用到，否则组装时直接失败；
+ * 声明为不会用到的接口依赖注入一个桩，基准测试一旦调用它就抛异常，而不是留下 null 到运行时才报空指针。
+ */
+public final class ServiceFixture<T> {
+
+    private final T target;
+
+    private final Map<String, Object> dependencies = new HashMap<>();
+
+    private final Set<String> unused = new HashSet<>();
+
+    private ServiceFixture(T target) {
+        this.target = target;
+    }
+
+    public static <T> ServiceFixture<T> of(Supplier<T> constructor) {
+        return new ServiceFixture<>(constructor.get());
+    }
+
+    public ServiceFixture<T> with(String field, Object value) {
+        dependencies.put(field, value);
+        return this;
+    }
+
+    public ServiceFixture<T> unused(String... fields) {
+        unused.addAll(Set.of(fields));
+        return this;
+    }
+
+    public T build() {
+        Set<String> remaining = new HashSet<>(dependencies.keySet());
+        remaining.addAll(unused);
+        for (Field field : target.getClass().getDeclaredFields()) {
+            if (!field.isAnnotationPresent(Autowired.class)) {
+                continue;
+            }
+            String name = field.getName();
+            Object value;
+            if (dependencies.containsKey(name)) {
+                value = dependencies.get(name);
+            } else if (unused.contains(name)) {
+                value = field.getType().isInterface() ? unusedStub(field.getType(), name) : null;
+            } else {
+                throw new IllegalStateException(describe(name) + " 未注入，请用 with 提供或用 unused 声明");
+            }
+            remaining.remove(name);
+            set(field, value);
+        }
+        if (!remaining.isEmpty()) {
+            throw new IllegalStateException(target.getClass().getSimpleName() + " 没有 @Autowired 字段 " + remaining);
+        }
+        postConstruct();
+        return target;
+    }
+
+    /**
+     * 只实现 answers 中列出方法的接口桩，默认方法走接口自身的实现，其余方法抛 UnsupportedOperationException。
+     */
+    public static <S> S stub(Class<S> type, Map<String, Function<Object[], Object>> answers) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " 没有桩实现");
+            }
+            return answer.apply(args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private Object unusedStub(Class<?> type, String name) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "unused " + name;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    break;
+            }
+            throw new IllegalStateException(describe(name) + " 被声明为不会用到，却调用了 " + method.getName());
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void set(Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法设置字段 " + describe(field.getName()), e);
+        }
+    }
+
+    private void postConstruct() {
+        for (Method method : target.getClass().getDeclaredMethods()) {
+            if (method.isAnnotationPresent(PostConstruct.class) && !Modifier.isStatic(method.getModifiers())) {
+                try {
+                    method.setAccessible(true);
+                    method.invoke(target);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(describe(method.getName()) + " 初始化失败", e);
+                }
+            }
+        }
+    }
+
+    private String describe(String member) {
+        return target.getClass().getSimpleName() + "." + member;
+    }
+}
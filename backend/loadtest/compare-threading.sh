@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# 用同样的数据和负载分别以平台线程和虚拟线程运行压测，以平台线程的结果为基线对比。
+# 需要 Java 21；额外参数会传给两次运行，例如 ./compare-threading.sh --incidents=200000
+# 虚拟线程的结果会被两类 synchronized 压低：内嵌 H2 自身，以及 8.x 的 mysql-connector-j（语句读写都在 synchronized 内，
+# 会固定载体线程）。请用 --jdbc-url 指向真实 MySQL，并确认 loadtest.jar 中打包的是 9.x 驱动。
+set -euo pipefail
+cd "$(dirname "$0")"
+
+JAVA="${JAVA:-java}"
+JAVA_OPTS="${JAVA_OPTS:--Xmx8g}"
+WORKERS="${WORKERS:-400}"
+
+"$JAVA" $JAVA_OPTS -jar target/loadtest.jar --workers="$WORKERS" "$@" \
+    --spring.threads.virtual.enabled=false \
+    --report=target/threading-platform.json --baseline=target/threading-platform.json --update-baseline
+
+"$JAVA" $JAVA_OPTS -jar target/loadtest.jar --workers="$WORKERS" "$@" \
+    --spring.threads.virtual.enabled=true \
+    --report=target/threading-virtual.json --baseline=target/threading-platform.json --fail-on-regression=false
@@ -0,0 +1,57 @@
+package com.valueguard.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 与基线报告逐个操作对比，吞吐下降或 p99 上升超过容忍比例即记为回归。
+ * 只比较两次都出现的操作，基线与本次数据规模不同时对比没有意义，会给出提示。
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static List<String> findRegressions(LoadReport baseline, LoadReport current, LoadTestOptions options) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, OperationStats> entry : current.getOperations().entrySet()) {
+            OperationStats before = baseline.getOperations().get(entry.getKey());
+            OperationStats after = entry.getValue();
+            if (before == null || before.getRequests() == 0) {
+                continue;
+            }
+            double minThroughput = before.getThroughput() * (1 - options.getThroughputTolerance());
+            if (after.getThroughput() < minThroughput) {
+                regressions.add(String.format("%s throughput %.2f/s -> %.2f/s (%+.1f%%)", entry.getKey(),
+                        before.getThroughput(), after.getThroughput(), change(before.getThroughput(), after.getThroughput())));
+            }
+            double maxP99 = before.getP99Ms() * (1 + options.getLatencyTolerance());
+            if (after.getP99Ms() > maxP99) {
+                regressions.add(String.format("%s p99 %.2fms -> %.2fms (%+.1f%%)", entry.getKey(),
+                        before.getP99Ms(), after.getP99Ms(), change(before.getP99Ms(), after.getP99Ms())));
+            }
+            double beforeErrorRate = (double) before.getErrors() / before.getRequests();
+            double afterErrorRate = after.getRequests() == 0 ? 0 : (double) after.getErrors() / after.getRequests();
+            if (afterErrorRate > beforeErrorRate + 0.01) {
+                regressions.add(String.format("%s error rate %.2f%% -> %.2f%%", entry.getKey(),
+                        beforeErrorRate * 100, afterErrorRate * 100));
+            }
+        }
+        return regressions;
+    }
+
+    public static boolean sameDataset(LoadReport baseline, LoadReport current) {
+        for (String key : List.of("users", "companies", "incidents", "comments", "workers", "mix")) {
+            Object before = baseline.getParameters().get(key);
+            if (before != null && !before.toString().equals(String.valueOf(current.getParameters().get(key)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
@@ -0,0 +1,295 @@
+package com.valueguard.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 按固定随机种子生成用户、公司、事件、分类和评论，同样的参数总是得到同样的数据。
+ * 公司和被评论的事件都按幂律分布挑选，少数热点占大部分流量，接近线上情况。
+ */
+public class DataSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // 时间跨度两年
+    private static final long SPAN_SECONDS = 2L * 365 * 24 * 3600;
+
+    static final List<String> CATEGORIES = List.of(
+            "Environmental", "Social", "Governance", "Data Privacy",
+            "Consumer Rights", "Labor Practices", "Misleading Advertising", "Other");
+
+    static final List<String> KEYWORDS = List.of(
+            "退款", "虚假宣传", "拖欠工资", "数据泄露", "污染", "加班", "客服", "霸王条款",
+            "食品安全", "隐私", "裁员", "售后", "质量问题", "延迟发货", "会员", "refund", "privacy", "delivery");
+
+    private static final List<String> COMPANY_PREFIXES = List.of(
+            "华信", "新锐", "东方", "博远", "云帆", "星辰", "恒通", "致远", "海纳", "瑞丰");
+
+    private static final List<String> COMPANY_SUFFIXES = List.of(
+            "科技", "食品", "物流", "电商", "教育", "医药", "地产", "传媒", "金融", "制造");
+
+    private static final List<String> SENTENCES = List.of(
+            "下单后迟迟未发货，联系客服多次都没有得到明确答复。",
+            "申请退款被以各种理由拒绝，处理流程非常不透明。",
+            "宣传中承诺的功能在实际使用中完全无法实现。",
+            "员工反映长期加班却没有按规定支付加班费。",
+            "个人信息在未经同意的情况下被提供给了第三方。",
+            "工厂附近的河道出现明显污染，居民多次投诉无果。",
+            "会员到期后被自动续费，取消入口设置得十分隐蔽。",
+            "产品使用不到一个月就出现质量问题，售后推诿。",
+            "The support team ignored repeated refund requests for weeks.",
+            "Customer data was shared with partners without any notice.");
+
+    private static final List<String> COMMENT_TEXTS = List.of(
+            "我也遇到了同样的问题，客服一直推脱。",
+            "已经向消费者协会投诉，等待处理结果。",
+            "感谢分享，避雷了。",
+            "请问后来退款成功了吗？",
+            "同样的情况，希望有关部门能介入。",
+            "Same thing happened to me last month.");
+
+    private final LoadTestOptions options;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public DataSeeder(LoadTestOptions options) {
+        this.options = options;
+        this.random = new Random(options.getSeed());
+    }
+
+    public Dataset seed(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        String[] userIds = seedUsers(connection);
+        String[] companyIds = new String[options.getCompanies()];
+        String[] companyNames = new String[options.getCompanies()];
+        seedCompanies(connection, companyIds, companyNames);
+        String[] incidentIds = new String[options.getIncidents()];
+        LocalDateTime[] incidentDates = new LocalDateTime[options.getIncidents()];
+        seedIncidents(connection, userIds, companyIds, companyNames, incidentIds, incidentDates);
+        seedComments(connection, userIds, incidentIds, incidentDates);
+        connection.setAutoCommit(true);
+        return new Dataset(incidentIds, companyNames, userIds.length);
+    }
+
+    private String[] seedUsers(Connection connection) throws SQLException {
+        // 所有账号共用一个哈希，BCrypt cost 与后端默认配置一致
+        String passwordHash = new BCryptPasswordEncoder(10).encode(Dataset.PASSWORD);
+        String[] userIds = new String[options.getUsers()];
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (uid, email, password, display_name, phone_number, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = uuid();
+                Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(randomLong(SPAN_SECONDS)));
+                statement.setString(1, userIds[i]);
+                statement.setString(2, Dataset.email(i));
+                statement.setString(3, passwordHash);
+                statement.setString(4, "压测用户" + i);
+                statement.setString(5, String.format("+86 1%010d", i));
+                statement.setTimestamp(6, createdAt);
+                statement.setTimestamp(7, createdAt);
+                addBatch(connection, statement, i);
+            }
+            flush(connection, statement);
+        }
+        log("users", userIds.length);
+        return userIds;
+    }
+
+    private void seedCompanies(Connection connection, String[] companyIds, String[] companyNames) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO companies (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < companyIds.length; i++) {
+                companyIds[i] = uuid();
+                companyNames[i] = pick(COMPANY_PREFIXES) + pick(COMPANY_SUFFIXES) + (i + 1) + "号";
+                Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(SPAN_SECONDS));
+                statement.setString(1, companyIds[i]);
+                statement.setString(2, companyNames[i]);
+                statement.setTimestamp(3, createdAt);
+                statement.setTimestamp(4, createdAt);
+                addBatch(connection, statement, i);
+            }
+            flush(connection, statement);
+        }
+        log("companies", companyIds.length);
+    }
+
+    private void seedIncidents(Connection connection, String[] userIds, String[] companyIds, String[] companyNames,
+                               String[] incidentIds, LocalDateTime[] incidentDates) throws SQLException {
+        long[] incidentCounts = new long[companyIds.length];
+        long categories = 0;
+        try (PreparedStatement incidents = connection.prepareStatement(
+                "INSERT INTO incidents (id, company_name, company_id, title, description, user_id, date, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement categoryRows = connection.prepareStatement(
+                     "INSERT INTO incident_categories (incident_id, category) VALUES (?, ?)")) {
+            for (int i = 0; i < incidentIds.length; i++) {
+                int company = skewed(companyIds.length, 3);
+                incidentCounts[company]++;
+                incidentIds[i] = uuid();
+                // 下标越小越新
+                incidentDates[i] = now.minusSeconds(SPAN_SECONDS * i / incidentIds.length + randomLong(60));
+                Timestamp date = Timestamp.valueOf(incidentDates[i]);
+                incidents.setString(1, incidentIds[i]);
+                incidents.setString(2, companyNames[company]);
+                incidents.setString(3, companyIds[company]);
+                incidents.setString(4, companyNames[company] + "涉嫌" + pick(KEYWORDS) + "问题的投诉");
+                incidents.setString(5, description());
+                incidents.setString(6, userIds[random.nextInt(userIds.length)]);
+                incidents.setTimestamp(7, date);
+                incidents.setTimestamp(8, date);
+                incidents.setTimestamp(9, date);
+                incidents.addBatch();
+
+                Set<String> picked = new LinkedHashSet<>();
+                int count = 1 + random.nextInt(3);
+                while (picked.size() < count) {
+                    picked.add(pick(CATEGORIES));
+                }
+                for (String category : picked) {
+                    categoryRows.setString(1, incidentIds[i]);
+                    categoryRows.setString(2, category);
+                    categoryRows.addBatch();
+                    categories++;
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    incidents.executeBatch();
+                    categoryRows.executeBatch();
+                    connection.commit();
+                }
+                if ((i + 1) % 100_000 == 0) {
+                    log("incidents", i + 1);
+                }
+            }
+            incidents.executeBatch();
+            categoryRows.executeBatch();
+            connection.commit();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE companies SET incident_count = ? WHERE id = ?")) {
+            for (int i = 0; i < companyIds.length; i++) {
+                statement.setLong(1, incidentCounts[i]);
+                statement.setString(2, companyIds[i]);
+                addBatch(connection, statement, i);
+            }
+            flush(connection, statement);
+        }
+
+        // 分类计数表按与应用重建时相同的聚合一次性写入
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO incident_category_counts (company_name, category, incident_count) "
+                    + "SELECT '', category, COUNT(*) FROM incident_categories GROUP BY category");
+            statement.executeUpdate("INSERT INTO incident_category_counts (company_name, category, incident_count) "
+                    + "SELECT i.company_name, ic.category, COUNT(*) FROM incident_categories ic "
+                    + "JOIN incidents i ON i.id = ic.incident_id GROUP BY i.company_name, ic.category");
+            connection.commit();
+        }
+        log("incidents", incidentIds.length);
+        log("incident_categories", categories);
+    }
+
+    private void seedComments(Connection connection, String[] userIds, String[] incidentIds,
+                              LocalDateTime[] incidentDates) throws SQLException {
+        long[] commentCounts = new long[incidentIds.length];
+        LocalDateTime[] lastCommentAt = new LocalDateTime[incidentIds.length];
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO comments (id, text, user_id, incident_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < options.getComments(); i++) {
+                // 评论集中在较新的事件上
+                int incident = skewed(incidentIds.length, 2);
+                long age = ChronoUnit.SECONDS.between(incidentDates[incident], now);
+                LocalDateTime commentedAt = incidentDates[incident].plusSeconds(randomLong(age + 1));
+                Timestamp createdAt = Timestamp.valueOf(commentedAt);
+                commentCounts[incident]++;
+                if (lastCommentAt[incident] == null || commentedAt.isAfter(lastCommentAt[incident])) {
+                    lastCommentAt[incident] = commentedAt;
+                }
+                statement.setString(1, uuid());
+                statement.setString(2, pick(COMMENT_TEXTS));
+                statement.setString(3, userIds[random.nextInt(userIds.length)]);
+                statement.setString(4, incidentIds[incident]);
+                statement.setTimestamp(5, createdAt);
+                statement.setTimestamp(6, createdAt);
+                addBatch(connection, statement, i);
+                if ((i + 1) % 500_000 == 0) {
+                    log("comments", i + 1);
+                }
+            }
+            flush(connection, statement);
+        }
+
+        // 与 companies.incident_count 一样直接写入冗余的评论数，不依赖应用的增量维护
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE incidents SET comment_count = ?, last_comment_at = ? WHERE id = ?")) {
+            int rows = 0;
+            for (int i = 0; i < incidentIds.length; i++) {
+                if (commentCounts[i] == 0) {
+                    continue;
+                }
+                statement.setLong(1, commentCounts[i]);
+                statement.setTimestamp(2, Timestamp.valueOf(lastCommentAt[i]));
+                statement.setString(3, incidentIds[i]);
+                addBatch(connection, statement, rows++);
+            }
+            flush(connection, statement);
+        }
+        log("comments", options.getComments());
+    }
+
+    private String description() {
+        StringBuilder description = new StringBuilder();
+        int sentences = 3 + random.nextInt(4);
+        for (int i = 0; i < sentences; i++) {
+            description.append(pick(SENTENCES));
+        }
+        return description.toString();
+    }
+
+    /**
+     * 在 [0, size) 中按幂律挑选，exponent 越大越偏向小下标。
+     */
+    private int skewed(int size, int exponent) {
+        return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), exponent)));
+    }
+
+    private long randomLong(long bound) {
+        return (long) (random.nextDouble() * bound);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private String uuid() {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement statement, int index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            flush(connection, statement);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    private static void log(String table, long rows) {
+        System.out.printf("seeded %-20s %,d%n", table, rows);
+    }
+}
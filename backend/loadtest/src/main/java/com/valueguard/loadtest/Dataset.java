@@ -0,0 +1,54 @@
+package com.valueguard.loadtest;
+
+/**
+ * 已写入数据库的合成数据中压测需要引用的部分。
+ * 事件按时间倒序排列，下标越小越新，压测据此让访问集中在近期的热点事件上。
+ */
+public class Dataset {
+
+    public static final String PASSWORD = "loadtest-password";
+
+    private final String[] incidentIds;
+    private final String[] companyNames;
+    private final int users;
+    // 压测开始前被归档的最旧事件数，归档事件不能再评论
+    private int archivedIncidents;
+
+    public Dataset(String[] incidentIds, String[] companyNames, int users) {
+        this.incidentIds = incidentIds;
+        this.companyNames = companyNames;
+        this.users = users;
+    }
+
+    public String incidentId(int index) {
+        return incidentIds[index];
+    }
+
+    public int incidentCount() {
+        return incidentIds.length;
+    }
+
+    public int hotIncidentCount() {
+        return incidentIds.length - archivedIncidents;
+    }
+
+    public void setArchivedIncidents(int archivedIncidents) {
+        this.archivedIncidents = Math.min(archivedIncidents, incidentIds.length);
+    }
+
+    public String companyName(int index) {
+        return companyNames[index];
+    }
+
+    public int companyCount() {
+        return companyNames.length;
+    }
+
+    public int userCount() {
+        return users;
+    }
+
+    public static String email(int userIndex) {
+        return "loadtest-" + userIndex + "@example.com";
+    }
+}
@@ -0,0 +1,256 @@
+package com.valueguard.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 闭环压测：每个线程发出请求、等待响应、（可选）思考，再发下一个请求。
+ * 预热阶段的样本丢弃，之后每个线程各自记录直方图，结束时合并，避免线程间争用。
+ */
+public class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestOptions options;
+    private final Dataset dataset;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Operation[] schedule;
+
+    public LoadDriver(LoadTestOptions options, Dataset dataset, String baseUrl) {
+        this.options = options;
+        this.dataset = dataset;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> weight : options.weights().entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                slots.add(weight.getKey());
+            }
+        }
+        this.schedule = slots.toArray(new Operation[0]);
+    }
+
+    public LoadReport run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.getWorkers(); i++) {
+            Worker worker = new Worker(i, measureFrom, end);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-worker-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double seconds = options.getDurationSeconds();
+        LoadReport report = new LoadReport();
+        report.setStartedAt(LocalDateTime.now().minusSeconds(options.getWarmupSeconds() + options.getDurationSeconds()).toString());
+        report.setDurationSeconds(seconds);
+        for (Operation operation : options.weights().keySet()) {
+            Histogram merged = newHistogram();
+            long errors = 0;
+            for (Worker worker : workers) {
+                merged.add(worker.histograms.get(operation));
+                errors += worker.errors.get(operation)[0];
+            }
+            OperationStats stats = OperationStats.of(merged, errors, seconds);
+            report.getOperations().put(operation.key(), stats);
+            report.setTotalRequests(report.getTotalRequests() + stats.getRequests());
+            report.setTotalErrors(report.getTotalErrors() + stats.getErrors());
+        }
+        report.setThroughput(Math.round(report.getTotalRequests() / seconds * 100) / 100.0);
+        return report;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private class Worker implements Runnable {
+        private final int index;
+        private final long measureFrom;
+        private final long end;
+        private final Random random;
+        private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        private final Map<Operation, long[]> errors = new EnumMap<>(Operation.class);
+        private String token;
+
+        private Worker(int index, long measureFrom, long end) {
+            this.index = index;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.random = new Random(options.getSeed() * 31 + index);
+            for (Operation operation : Operation.values()) {
+                histograms.put(operation, newHistogram());
+                errors.put(operation, new long[1]);
+            }
+        }
+
+        @Override
+        public void run() {
+            // 所有线程同时登录会超出密码哈希队列，失败后退避重试，直到预热结束
+            for (int attempt = 1; token == null; attempt++) {
+                try {
+                    token = login(index);
+                } catch (IOException e) {
+                    if (System.nanoTime() >= measureFrom) {
+                        System.err.println(Thread.currentThread().getName() + " login failed: " + e.getMessage());
+                        return;
+                    }
+                    try {
+                        Thread.sleep(Math.min(2000L, 100L * attempt));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            while (true) {
+                Operation operation = schedule[random.nextInt(schedule.length)];
+                long started = System.nanoTime();
+                if (started >= end) {
+                    break;
+                }
+                boolean ok;
+                try {
+                    int status = send(operation).statusCode();
+                    ok = status < 400;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+                if (started >= measureFrom) {
+                    histograms.get(operation).recordValue(Math.min(elapsedMicros, HIGHEST_TRACKABLE_MICROS));
+                    if (!ok) {
+                        errors.get(operation)[0]++;
+                    }
+                }
+                if (options.getThinkTimeMs() > 0) {
+                    try {
+                        Thread.sleep(options.getThinkTimeMs());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private HttpResponse<Void> send(Operation operation) throws IOException, InterruptedException {
+            HttpRequest request = switch (operation) {
+                case LIST -> get("/incidents?page=" + listPage() + "&size=" + options.getPageSize());
+                case SEARCH -> get("/incidents?page=1&size=" + options.getPageSize()
+                        + "&search=" + encode(DataSeeder.KEYWORDS.get(random.nextInt(DataSeeder.KEYWORDS.size()))));
+                case DETAIL -> get("/incidents/" + hotIncident());
+                case COMMENTS -> get("/incidents/" + hotIncident() + "/comments?page=1&size=" + options.getPageSize());
+                case COMPANY -> get("/companies/" + encode(dataset.companyName(hotCompany()))
+                        + "/incidents?page=1&size=" + options.getPageSize());
+                case POST_COMMENT -> post("/incidents/" + writableIncident() + "/comments",
+                        "{\"comment\":\"压测评论 " + random.nextInt(1_000_000) + "\"}", token);
+                case LOGIN -> post("/auth/login", loginBody(random.nextInt(dataset.userCount())), null);
+            };
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        // 大多数用户只看前几页
+        private int listPage() {
+            double p = random.nextDouble();
+            if (p < 0.6) {
+                return 1;
+            }
+            if (p < 0.8) {
+                return 2;
+            }
+            if (p < 0.9) {
+                return 3;
+            }
+            return 4 + random.nextInt(7);
+        }
+
+        private String hotIncident() {
+            int size = dataset.incidentCount();
+            return dataset.incidentId(Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), 3))));
+        }
+
+        // 只在未归档的事件上评论
+        private String writableIncident() {
+            int size = Math.max(1, dataset.hotIncidentCount());
+            return dataset.incidentId(Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), 3))));
+        }
+
+        private int hotCompany() {
+            int size = dataset.companyCount();
+            return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), 3)));
+        }
+    }
+
+    private String login(int userIndex) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(post("/auth/login", loginBody(userIndex), null),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        if (!body.path("success").asBoolean()) {
+            throw new IOException(body.path("message").asText());
+        }
+        return body.path("data").path("token").asText();
+    }
+
+    private String loginBody(int userIndex) {
+        return "{\"account\":\"" + Dataset.email(userIndex) + "\",\"password\":\"" + Dataset.PASSWORD + "\"}";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
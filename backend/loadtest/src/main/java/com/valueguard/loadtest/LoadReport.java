@@ -0,0 +1,22 @@
+package com.valueguard.loadtest;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一次压测的结果，序列化为 JSON 写入报告文件，也作为后续运行的基线。
+ */
+@Data
+@NoArgsConstructor
+public class LoadReport {
+    private String startedAt;
+    private Map<String, Object> parameters = new LinkedHashMap<>();
+    private double durationSeconds;
+    private long totalRequests;
+    private long totalErrors;
+    private double throughput;
+    private Map<String, OperationStats> operations = new LinkedHashMap<>();
+}
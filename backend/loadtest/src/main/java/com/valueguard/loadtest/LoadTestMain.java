@@ -0,0 +1,195 @@
+package com.valueguard.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.valueguard.ValueGuardApplication;
+import com.valueguard.config.SearchProperties;
+import com.valueguard.search.IncidentSearchIndex;
+import com.valueguard.service.IncidentArchiver;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测入口：建库并灌入合成数据 → 启动后端 → 跑混合负载 → 输出报告并与基线对比。
+ * 发现回归且 --fail-on-regression=true 时以退出码 1 结束，可直接放进发布流程。
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        long seedStart = System.nanoTime();
+        Dataset dataset;
+        // 内存库的 DB_CLOSE_DELAY=-1 让数据在灌数连接关闭后继续存在，供后端连接池使用
+        try (Connection connection = DriverManager.getConnection(
+                options.getJdbcUrl(), options.getJdbcUsername(), options.getJdbcPassword())) {
+            SchemaLoader.load(connection);
+            dataset = new DataSeeder(options).seed(connection);
+        }
+        if (options.isReplica()) {
+            if (!options.isEmbedded()) {
+                throw new IllegalArgumentException("--replica 只支持内存 H2");
+            }
+            // 同一种子生成的数据与主库一致；副本不会收到压测期间的写入，正好模拟复制延迟
+            try (Connection connection = DriverManager.getConnection(
+                    options.getReplicaJdbcUrl(), options.getJdbcUsername(), options.getJdbcPassword())) {
+                SchemaLoader.load(connection);
+                new DataSeeder(options).seed(connection);
+            }
+        }
+        System.out.printf("seeding took %ds%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStart));
+
+        ConfigurableApplicationContext context = startBackend(options);
+        int exitCode = 0;
+        try {
+            awaitSearchIndex(context);
+            if (options.isArchive()) {
+                archive(context, dataset);
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + context.getEnvironment().getProperty("server.servlet.context-path", "");
+
+            System.out.printf("running %d workers: %ds warmup + %ds measured%n",
+                    options.getWorkers(), options.getWarmupSeconds(), options.getDurationSeconds());
+            LoadReport report = new LoadDriver(options, dataset, baseUrl).run();
+            report.setParameters(parameters(options));
+            print(report);
+
+            File reportFile = new File(options.getReport());
+            if (reportFile.getAbsoluteFile().getParentFile() != null) {
+                reportFile.getAbsoluteFile().getParentFile().mkdirs();
+            }
+            objectMapper.writeValue(reportFile, report);
+            System.out.println("report written to " + reportFile.getPath());
+
+            File baselineFile = new File(options.getBaseline());
+            if (options.isUpdateBaseline()) {
+                objectMapper.writeValue(baselineFile, report);
+                System.out.println("baseline updated: " + baselineFile.getPath());
+            } else if (baselineFile.exists()) {
+                LoadReport baseline = objectMapper.readValue(baselineFile, LoadReport.class);
+                if (!BaselineComparison.sameDataset(baseline, report)) {
+                    System.out.println("WARNING: baseline was recorded with different dataset or workload parameters");
+                }
+                List<String> regressions = BaselineComparison.findRegressions(baseline, report, options);
+                if (regressions.isEmpty()) {
+                    System.out.println("no regressions against " + baselineFile.getPath());
+                } else {
+                    regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+                    if (options.isFailOnRegression()) {
+                        exitCode = 1;
+                    }
+                }
+            } else {
+                System.out.println("no baseline at " + baselineFile.getPath() + ", run with --update-baseline to store one");
+            }
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startBackend(LoadTestOptions options) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", options.getJdbcUrl());
+        properties.put("spring.datasource.username", options.getJdbcUsername());
+        properties.put("spring.datasource.password", options.getJdbcPassword());
+        if (options.isEmbedded()) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        }
+        if (options.isReplica()) {
+            properties.put("replica.enabled", "true");
+            properties.put("replica.url", options.getReplicaJdbcUrl());
+            properties.put("replica.username", options.getJdbcUsername());
+            properties.put("replica.password", options.getJdbcPassword());
+            properties.put("replica.driver-class-name", "org.h2.Driver");
+            // H2 没有复制状态，延迟恒为 0
+            properties.put("replica.lag-query", "SELECT 0 AS lag");
+            properties.put("replica.lag-column", "lag");
+        }
+        if (options.isArchive()) {
+            properties.put("archive.enabled", "true");
+        }
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("mybatis.configuration.log-impl", "org.apache.ibatis.logging.nologging.NoLoggingImpl");
+        properties.put("logging.level.com.valueguard", "INFO");
+        properties.put("logging.level.com.valueguard.mapper", "INFO");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.putAll(options.getBackendProperties());
+        // 命令行参数优先级高于 application.yml，保证以上设置生效
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ValueGuardApplication.class).run(args);
+    }
+
+    private static void awaitSearchIndex(ConfigurableApplicationContext context) throws InterruptedException {
+        if (!context.getBean(SearchProperties.class).isEnabled()) {
+            return;
+        }
+        IncidentSearchIndex searchIndex = context.getBean(IncidentSearchIndex.class);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(30);
+        while (!searchIndex.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("搜索索引构建超时");
+            }
+            Thread.sleep(500);
+        }
+        System.out.printf("search index ready: %,d incidents%n", searchIndex.size());
+    }
+
+    private static void archive(ConfigurableApplicationContext context, Dataset dataset) {
+        long started = System.nanoTime();
+        Map<String, Object> result = context.getBean(IncidentArchiver.class).archive();
+        // 事件按时间倒序排列，被归档的是下标最大的那一段
+        dataset.setArchivedIncidents(((Number) result.get("incidentsArchived")).intValue());
+        System.out.printf("archived %,d of %,d incidents in %ds%n", dataset.incidentCount() - dataset.hotIncidentCount(),
+                dataset.incidentCount(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    private static Map<String, Object> parameters(LoadTestOptions options) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("database", options.isEmbedded() ? "h2" : "external");
+        parameters.put("replica", options.isReplica());
+        parameters.put("archive", options.isArchive());
+        parameters.put("users", options.getUsers());
+        parameters.put("companies", options.getCompanies());
+        parameters.put("incidents", options.getIncidents());
+        parameters.put("comments", options.getComments());
+        parameters.put("seed", options.getSeed());
+        parameters.put("workers", options.getWorkers());
+        parameters.put("warmupSeconds", options.getWarmupSeconds());
+        parameters.put("durationSeconds", options.getDurationSeconds());
+        parameters.put("thinkTimeMs", options.getThinkTimeMs());
+        parameters.put("pageSize", options.getPageSize());
+        parameters.put("mix", options.getMix());
+        parameters.put("backendProperties", options.getBackendProperties());
+        parameters.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        parameters.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        parameters.put("javaVersion", System.getProperty("java.version"));
+        return parameters;
+    }
+
+    private static void print(LoadReport report) {
+        System.out.printf("%n%-14s %10s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        report.getOperations().forEach((name, stats) -> System.out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, stats.getRequests(), stats.getErrors(), stats.getThroughput(),
+                stats.getP50Ms(), stats.getP99Ms(), stats.getP999Ms(), stats.getMaxMs()));
+        System.out.printf("%-14s %10d %8d %10.1f%n%n", "total", report.getTotalRequests(), report.getTotalErrors(),
+                report.getThroughput());
+    }
+}
@@ -0,0 +1,119 @@
+package com.valueguard.loadtest;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行形如 --incidents=1000000。
+ * 名称中带点的参数（如 --spring.threads.virtual.enabled=true）原样传给被测后端。
+ */
+@Data
+public class LoadTestOptions {
+
+    // 默认使用内存 H2；也可指向一个空的 MySQL 库，灌数和压测都在该库上进行
+    private String jdbcUrl = "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    private String jdbcUsername = "sa";
+    private String jdbcPassword = "";
+    // 只在内存库下生效：另灌一份相同种子的 H2 作为只读副本，开启后端读写分离
+    private boolean replica = false;
+    // 开启冷数据归档，压测开始前先把热数据窗口（archive.hot-months）之外的事件归档
+    private boolean archive = false;
+    private String replicaJdbcUrl = "jdbc:h2:mem:loadtest-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    // 数据规模
+    private int users = 100_000;
+    private int companies = 5_000;
+    private int incidents = 1_000_000;
+    private int comments = 2_000_000;
+    private long seed = 42;
+
+    // 负载
+    private int workers = 32;
+    private int warmupSeconds = 30;
+    private int durationSeconds = 120;
+    private int thinkTimeMs = 0;
+    private int pageSize = 20;
+    private String mix = "list:35,search:15,detail:20,comments:10,company:5,post_comment:10,login:5";
+
+    // 报告与基线
+    private String report = "target/loadtest-report.json";
+    private String baseline = "baseline.json";
+    private boolean updateBaseline = false;
+    private boolean failOnRegression = true;
+    // 吞吐下降或 p99 上升超过该比例即视为回归
+    private double throughputTolerance = 0.10;
+    private double latencyTolerance = 0.20;
+
+    private Map<String, String> backendProperties = new LinkedHashMap<>();
+
+    public boolean isEmbedded() {
+        return jdbcUrl.startsWith("jdbc:h2:");
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数: " + arg);
+            }
+            String[] pair = arg.substring(2).split("=", 2);
+            String name = pair[0];
+            String value = pair.length > 1 ? pair[1] : "true";
+            if (name.contains(".")) {
+                options.backendProperties.put(name, value);
+                continue;
+            }
+            switch (name) {
+                case "jdbc-url" -> options.jdbcUrl = value;
+                case "jdbc-username" -> options.jdbcUsername = value;
+                case "jdbc-password" -> options.jdbcPassword = value;
+                case "replica" -> options.replica = Boolean.parseBoolean(value);
+                case "archive" -> options.archive = Boolean.parseBoolean(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "companies" -> options.companies = Integer.parseInt(value);
+                case "incidents" -> options.incidents = Integer.parseInt(value);
+                case "comments" -> options.comments = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "workers" -> options.workers = Integer.parseInt(value);
+                case "warmup-seconds" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration-seconds" -> options.durationSeconds = Integer.parseInt(value);
+                case "think-time-ms" -> options.thinkTimeMs = Integer.parseInt(value);
+                case "page-size" -> options.pageSize = Integer.parseInt(value);
+                case "mix" -> options.mix = value;
+                case "report" -> options.report = value;
+                case "baseline" -> options.baseline = value;
+                case "update-baseline" -> options.updateBaseline = Boolean.parseBoolean(value);
+                case "fail-on-regression" -> options.failOnRegression = Boolean.parseBoolean(value);
+                case "throughput-tolerance" -> options.throughputTolerance = Double.parseDouble(value);
+                case "latency-tolerance" -> options.latencyTolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("未知参数: --" + name);
+            }
+        }
+        if (options.users < options.workers) {
+            throw new IllegalArgumentException("users 不能少于 workers，每个压测线程使用独立账号");
+        }
+        return options;
+    }
+
+    /**
+     * 解析 --mix，返回各操作的权重。
+     */
+    public Map<Operation, Integer> weights() {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix 至少需要一个权重大于 0 的操作");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,33 @@
+package com.valueguard.loadtest;
+
+/**
+ * 压测中的接口操作，名称用于 --mix 参数和报告。
+ */
+public enum Operation {
+    LIST("list"),
+    SEARCH("search"),
+    DETAIL("detail"),
+    COMMENTS("comments"),
+    COMPANY("company"),
+    POST_COMMENT("post_comment"),
+    LOGIN("login");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("未知操作: " + name);
+    }
+}
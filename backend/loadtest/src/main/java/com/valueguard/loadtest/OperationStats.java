@@ -0,0 +1,44 @@
+package com.valueguard.loadtest;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 单个操作的吞吐与延迟统计，延迟单位为毫秒。
+ */
+@Data
+@NoArgsConstructor
+public class OperationStats {
+    private long requests;
+    private long errors;
+    private double throughput;
+    private double meanMs;
+    private double p50Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+
+    public static OperationStats of(Histogram histogram, long errors, double seconds) {
+        OperationStats stats = new OperationStats();
+        stats.requests = histogram.getTotalCount();
+        stats.errors = errors;
+        stats.throughput = round(stats.requests / seconds);
+        if (stats.requests > 0) {
+            stats.meanMs = toMillis(histogram.getMean());
+            stats.p50Ms = toMillis(histogram.getValueAtPercentile(50));
+            stats.p99Ms = toMillis(histogram.getValueAtPercentile(99));
+            stats.p999Ms = toMillis(histogram.getValueAtPercentile(99.9));
+            stats.maxMs = toMillis(histogram.getMaxValue());
+        }
+        return stats;
+    }
+
+    private static double toMillis(double micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
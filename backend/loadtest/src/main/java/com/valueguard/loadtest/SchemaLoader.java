@@ -0,0 +1,49 @@
+package com.valueguard.loadtest;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把后端的 schema.sql 加载到 H2。
+ * MySQL 的索引名只需在表内唯一，H2 要求在整个库内唯一，因此加载前给索引名加上表名前缀。
+ */
+public final class SchemaLoader {
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE IF NOT EXISTS (\\w+)");
+    private static final Pattern INDEX = Pattern.compile("\\b(UNIQUE )?INDEX (\\w+)");
+
+    private SchemaLoader() {
+    }
+
+    public static void load(Connection connection) throws IOException {
+        String schema;
+        try (InputStream in = new ClassPathResource("schema.sql").getInputStream()) {
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder rewritten = new StringBuilder();
+        String table = null;
+        for (String line : schema.split("\n")) {
+            Matcher createTable = CREATE_TABLE.matcher(line);
+            if (createTable.find()) {
+                table = createTable.group(1);
+            }
+            if (table != null) {
+                Matcher index = INDEX.matcher(line);
+                String prefix = table;
+                line = index.replaceAll(match -> Matcher.quoteReplacement(
+                        (match.group(1) != null ? match.group(1) : "") + "INDEX " + prefix + "_" + match.group(2)));
+            }
+            rewritten.append(line).append('\n');
+        }
+        ScriptUtils.executeSqlScript(connection,
+                new ByteArrayResource(rewritten.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
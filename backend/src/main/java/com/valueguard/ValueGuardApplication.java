@@ -2,8 +2,10 @@ package com.valueguard;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ValueGuardApplication {
     public static void main(String[] args) {
         SpringApplication.run(ValueGuardApplication.class, args);
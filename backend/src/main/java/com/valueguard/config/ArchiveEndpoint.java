@@ -0,0 +1,31 @@
+package com.valueguard.config;
+
+import com.valueguard.service.IncidentArchiver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 管理端口上的 POST /actuator/archive：立即执行一轮归档和分区维护，不受 archive.cron 限制。
+ */
+@Component
+@Endpoint(id = "archive")
+public class ArchiveEndpoint {
+    
+    @Autowired
+    private IncidentArchiver incidentArchiver;
+    
+    @Autowired
+    private ArchiveProperties archiveProperties;
+    
+    @WriteOperation
+    public Map<String, Object> archive() {
+        if (!archiveProperties.isEnabled()) {
+            return Map.of("enabled", false);
+        }
+        return incidentArchiver.archive();
+    }
+}
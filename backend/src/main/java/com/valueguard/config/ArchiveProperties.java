@@ -0,0 +1,21 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+    // 开启后定时归档热数据窗口之外的事件，读取越过窗口时才查询归档表；归档过的数据需保持开启才能读到
+    private boolean enabled = false;
+    // 热数据窗口的月数，按自然月对齐，与 incidents 的月分区一致
+    private int hotMonths = 12;
+    private String cron = "0 0 3 * * *";
+    // 每个事务移动的事件数
+    private int batchSize = 500;
+    // incidents 已按 db/partitioning.sql 分区时，归档后追加未来月份的分区并删除已清空的旧分区（仅 MySQL）
+    private boolean managePartitions = false;
+    private int futurePartitions = 3;
+}
@@ -0,0 +1,48 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+    private Spec user = new Spec(true, 10000, Duration.ofMinutes(5));
+    private Spec company = new Spec(true, 10000, Duration.ofMinutes(10));
+    private Spec facets = new Spec(true, 10000, Duration.ofMinutes(10));
+    private PageSpec incidentPages = new PageSpec();
+    
+    @Data
+    public static class Spec {
+        private boolean enabled;
+        private long maxSize;
+        private Duration ttl;
+        
+        public Spec() {
+        }
+        
+        public Spec(boolean enabled, long maxSize, Duration ttl) {
+            this.enabled = enabled;
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+    }
+    
+    /**
+     * 列表热门页的响应缓存：只缓存不带游标的前 maxPage 页，写入后 refreshAfter 起异步刷新。
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class PageSpec extends Spec {
+        private int maxPage = 3;
+        private Duration refreshAfter = Duration.ofSeconds(5);
+        
+        public PageSpec() {
+            super(true, 1000, Duration.ofSeconds(30));
+        }
+    }
+}
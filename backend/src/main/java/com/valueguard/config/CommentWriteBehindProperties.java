@@ -0,0 +1,23 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "comments.write-behind")
+public class CommentWriteBehindProperties {
+    // 开启后评论先进入内存队列并立即返回，由后台线程批量写库
+    private boolean enabled = false;
+    // 队列满时拒绝新评论
+    private int queueCapacity = 10000;
+    // 每批最多写入的评论数
+    private int maxBatchSize = 200;
+    // 批次未满时最长等待多久写入，即评论最多延迟多久可见
+    private Duration flushInterval = Duration.ofMillis(50);
+    // 停机时等待队列写完的最长时间，超时后剩余评论丢失
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
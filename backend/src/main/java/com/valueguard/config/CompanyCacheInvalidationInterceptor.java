@@ -0,0 +1,40 @@
+package com.valueguard.config;
+
+import com.valueguard.entity.Company;
+import com.valueguard.mapper.CompanyMapper;
+import com.valueguard.service.CompanyCacheService;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * CompanyMapper 写入后使公司缓存失效。
+ */
+@Component
+public class CompanyCacheInvalidationInterceptor extends WriteInvalidationInterceptor<CompanyCacheService> {
+    
+    public CompanyCacheInvalidationInterceptor() {
+        super(CompanyMapper.class, Set.of("insert", "insertIgnore", "update", "deleteById"), CompanyCacheService.class);
+    }
+    
+    @Override
+    protected Runnable invalidation(CompanyCacheService cache, String statement, Object parameter) {
+        if (parameter instanceof Company company) {
+            return () -> {
+                cache.invalidate(company.getName());
+                if (company.getId() != null) {
+                    // 更新可能改名，旧名称对应的条目按 id 清除
+                    cache.invalidateById(company.getId());
+                }
+            };
+        }
+        if (param(parameter, "id") instanceof String id) {
+            return () -> cache.invalidateById(id);
+        }
+        if (param(parameter, "companies") instanceof Collection<?> companies) {
+            return () -> companies.forEach(company -> cache.invalidate(((Company) company).getName()));
+        }
+        return cache::invalidateAll;
+    }
+}
@@ -0,0 +1,37 @@
+package com.valueguard.config;
+
+import com.valueguard.service.CommentActivityRepairer;
+import com.valueguard.service.CompanyIncidentCounter;
+import com.valueguard.service.FacetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 管理端口上的 POST /actuator/counters：立即写回并重新校准公司事件计数、事件评论数和分类计数。
+ */
+@Component
+@Endpoint(id = "counters")
+public class CounterEndpoint {
+    
+    @Autowired
+    private CompanyIncidentCounter companyIncidentCounter;
+    
+    @Autowired
+    private CommentActivityRepairer commentActivityRepairer;
+    
+    @Autowired
+    private FacetService facetService;
+    
+    @WriteOperation
+    public Map<String, Object> reconcile() {
+        int updated = companyIncidentCounter.reconcile();
+        int incidentsUpdated = commentActivityRepairer.repair();
+        int categoryCounts = facetService.rebuild();
+        return Map.of("companiesUpdated", updated, "incidentsUpdated", incidentsUpdated,
+                "categoryCountsRebuilt", categoryCounts);
+    }
+}
@@ -0,0 +1,18 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "counters")
+public class CounterProperties {
+    // 内存中的计数增量批量写回数据库的间隔
+    private long flushIntervalMs = 5000;
+    // 启动时按 incidents 及其归档表重新校准计数
+    private boolean reconcileOnStartup = true;
+    // 按 comments 表校准事件评论数的时间与每批扫描的事件数
+    private String commentRepairCron = "0 30 4 * * *";
+    private int commentRepairBatchSize = 1000;
+}
@@ -0,0 +1,15 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "http-cache")
+public class HttpCacheProperties {
+    // 各接口响应的 Cache-Control 值；no-cache 表示客户端每次都用 ETag 重新验证
+    private String incident = "no-cache";
+    private String comments = "no-cache";
+    private String company = "no-cache";
+}
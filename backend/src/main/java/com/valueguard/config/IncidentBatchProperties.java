@@ -0,0 +1,15 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "incident-batch")
+public class IncidentBatchProperties {
+    // 单次请求最多提交的事件数
+    private int maxSize = 5000;
+    // 每个事务写入的事件数，失败时该块内的事件逐条重试
+    private int chunkSize = 500;
+}
@@ -0,0 +1,23 @@
+package com.valueguard.config;
+
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.service.IncidentPageCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 事件被修改或删除时清空列表热门页缓存。新建事件由 IncidentCreatedEvent 按范围失效，这里不处理。
+ */
+@Component
+public class IncidentPageCacheInvalidationInterceptor extends WriteInvalidationInterceptor<IncidentPageCache> {
+    
+    public IncidentPageCacheInvalidationInterceptor() {
+        super(IncidentMapper.class, Set.of("update", "deleteById"), IncidentPageCache.class);
+    }
+    
+    @Override
+    protected Runnable invalidation(IncidentPageCache cache, String statement, Object parameter) {
+        return cache::invalidateAll;
+    }
+}
@@ -0,0 +1,32 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "incident-stream")
+public class IncidentStreamProperties {
+    private boolean enabled = true;
+    // 同时在线的订阅者上限，超出时拒绝新连接
+    private int maxSubscribers = 10000;
+    // 最近事件的环形缓冲区大小，决定 Last-Event-ID 断线续传能回溯多远
+    private int replayBufferSize = 256;
+    // 订阅者最多落后的事件数（即每个订阅者的缓冲上限），超过即断开，由客户端重连续传
+    private int maxLag = 64;
+    // 单个连接的最长存活时间，到期后客户端自动重连
+    private Duration timeout = Duration.ofMinutes(30);
+    // 空闲连接发送心跳注释的间隔，用于发现断开的客户端并防止代理超时
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    // 建议客户端的重连间隔
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+    // 负责向连接写出事件的线程数
+    private int dispatchThreads = 4;
+    // 单次写入的最长阻塞时间，超过即断开该订阅者；阻塞的写线程要等容器的写超时才会释放
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    // 为写入超时后仍阻塞着的写线程补充的线程上限，超出后慢连接会再次占用写线程池
+    private int stalledWriteThreads = 64;
+}
@@ -10,5 +10,7 @@ import org.springframework.stereotype.Component;
 public class JwtProperties {
     private String secret;
     private long expiration;
+    // 已验签令牌缓存的最大条目数，0 表示关闭缓存
+    private long cacheMaxSize = 10000;
 }
 
@@ -0,0 +1,17 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 管理端口的 HTTP Basic 账号。health、metrics、prometheus 无需认证，其余端点（如 counters、archive）
+ * 需要该账号；未配置密码时这些端点一律拒绝。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "management-auth")
+public class ManagementAuthProperties {
+    private String username = "ops";
+    private String password;
+}
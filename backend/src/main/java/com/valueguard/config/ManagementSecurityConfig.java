@@ -0,0 +1,64 @@
+package com.valueguard.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
+
+/**
+ * 管理端口上的 Actuator 端点。只读的 health、metrics、prometheus 供监控抓取，无需认证；
+ * 会改写数据的端点（counters 重建计数表、archive 搬移数据并删除分区）需要 management-auth 的账号。
+ * 使用独立的认证管理器，业务用户的账号和 JWT 在这里都无效。
+ */
+@Configuration
+public class ManagementSecurityConfig {
+    
+    private static final String ROLE = "ACTUATOR";
+    
+    @Autowired
+    private ManagementAuthProperties managementAuthProperties;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers(EndpointRequest.to("health", "metrics", "prometheus")).permitAll()
+                .anyRequest().hasRole(ROLE)
+            )
+            .httpBasic(Customizer.withDefaults())
+            .authenticationManager(new ProviderManager(authenticationProvider()));
+        
+        return http.build();
+    }
+    
+    private DaoAuthenticationProvider authenticationProvider() {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager();
+        if (StringUtils.hasText(managementAuthProperties.getPassword())) {
+            users.createUser(User.withUsername(managementAuthProperties.getUsername())
+                    .password(passwordEncoder.encode(managementAuthProperties.getPassword()))
+                    .roles(ROLE)
+                    .build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+}
@@ -0,0 +1,86 @@
+package com.valueguard.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 Mapper 语句记录耗时（mybatis.statement）和返回/影响的行数（mybatis.statement.rows）。
+ * BATCH 执行器的 update 在提交前不知道行数，只记录耗时。
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class MyBatisMetricsInterceptor implements Interceptor {
+    
+    // 延迟获取，避免与 SqlSessionFactory 形成循环依赖
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        Meters statementMeters = meters.computeIfAbsent(statement.getId(), id -> new Meters(statement));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } finally {
+            statementMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        if (result instanceof Collection<?> rows) {
+            statementMeters.rows.record(rows.size());
+        } else if (result instanceof Integer affected && affected >= 0) {
+            statementMeters.rows.record(affected);
+        }
+        return result;
+    }
+    
+    private class Meters {
+        private final Timer timer;
+        private final DistributionSummary rows;
+        
+        private Meters(MappedStatement statement) {
+            // com.valueguard.mapper.IncidentMapper.findAll -> IncidentMapper.findAll
+            String id = statement.getId();
+            int mapperStart = id.lastIndexOf('.', id.lastIndexOf('.') - 1);
+            String name = id.substring(mapperStart + 1);
+            String type = statement.getSqlCommandType().name().toLowerCase();
+            MeterRegistry registry = meterRegistry.getObject();
+            this.timer = Timer.builder("mybatis.statement")
+                    .tag("statement", name)
+                    .tag("type", type)
+                    .register(registry);
+            this.rows = DistributionSummary.builder("mybatis.statement.rows")
+                    .tag("statement", name)
+                    .tag("type", type)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+    // BCrypt cost，每加 1 耗时翻倍
+    private int strength = 10;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    // 排队加计算的最长等待时间
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,45 @@
+package com.valueguard.config;
+
+import com.valueguard.datasource.ReadYourWritesTracker;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 开启只读副本时，任何写语句都把当前用户标记为刚写过数据；在事务中时提交后再标记一次，
+ * 粘滞时间从提交时算起。
+ */
+@Component
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class ReadYourWritesInterceptor implements Interceptor {
+    
+    // 延迟获取，避免与 SqlSessionFactory 形成循环依赖
+    @Autowired
+    private ObjectProvider<ReadYourWritesTracker> readYourWrites;
+    
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        ReadYourWritesTracker tracker = readYourWrites.getObject();
+        tracker.markCurrentUser();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tracker.markCurrentUser();
+                }
+            });
+        }
+        return result;
+    }
+}
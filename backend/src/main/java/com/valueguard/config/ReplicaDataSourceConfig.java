@@ -0,0 +1,73 @@
+package com.valueguard.config;
+
+import com.valueguard.datasource.ReadYourWritesTracker;
+import com.valueguard.datasource.ReplicaLagMonitor;
+import com.valueguard.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离。开启 replica.enabled 后用两个 Hikari 连接池（pool 标签分别为 primary、replica，
+ * 各自导出 hikaricp.* 指标）取代默认数据源，MyBatis 和事务管理器使用二者之上的路由数据源。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.REPLICA);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getStickiness());
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, properties, meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesTracker readYourWrites, ReplicaLagMonitor lagMonitor,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, readYourWrites,
+                lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        // 事务开始时不取连接，等第一条语句执行时再按只读标记选库
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,30 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 只读副本。开启后只读事务路由到副本，其余语句仍走 spring.datasource 指向的主库；
+ * 副本连接池参数在 replica.hikari 下配置。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    // 用户写入后的这段时间内，其只读请求仍走主库，保证读到自己刚写的数据
+    private Duration stickiness = Duration.ofSeconds(5);
+    // 复制延迟超过该值或无法获取时，只读请求回退到主库
+    private Duration maxLag = Duration.ofSeconds(2);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    // 查询复制延迟（秒）的语句与结果列，MySQL 8.0.22 以下为 SHOW SLAVE STATUS / Seconds_Behind_Master
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private String lagColumn = "Seconds_Behind_Source";
+}
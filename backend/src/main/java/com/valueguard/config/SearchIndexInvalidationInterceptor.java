@@ -0,0 +1,35 @@
+package com.valueguard.config;
+
+import com.valueguard.entity.Incident;
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.search.IncidentSearchIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 事件被修改时按最新数据重建其搜索文档，被删除时从索引中移除。
+ * 索引的改动无法随事务回滚，只在提交后执行。
+ */
+@Component
+public class SearchIndexInvalidationInterceptor extends WriteInvalidationInterceptor<IncidentSearchIndex> {
+    
+    public SearchIndexInvalidationInterceptor() {
+        super(IncidentMapper.class, Set.of("update", "deleteById"), IncidentSearchIndex.class);
+    }
+    
+    @Override
+    protected boolean invalidateBeforeCommit() {
+        return false;
+    }
+    
+    @Override
+    protected Runnable invalidation(IncidentSearchIndex index, String statement, Object parameter) {
+        if (statement.equals("update") && parameter instanceof Incident incident) {
+            String id = incident.getId();
+            return () -> index.reindex(id);
+        }
+        String id = (String) param(parameter, "id");
+        return () -> index.remove(id);
+    }
+}
@@ -0,0 +1,22 @@
+package com.valueguard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+    private boolean enabled = true;
+    // 启动时分批从数据库加载事件建立索引的批大小
+    private int buildBatchSize = 1000;
+    // BM25 参数
+    private double k1 = 1.2;
+    private double b = 0.75;
+    // 各字段的词频权重
+    private int titleWeight = 3;
+    private int companyWeight = 2;
+    private int categoryWeight = 2;
+    private int descriptionWeight = 1;
+}
@@ -0,0 +1,30 @@
+package com.valueguard.config;
+
+import com.valueguard.entity.User;
+import com.valueguard.mapper.UserMapper;
+import com.valueguard.service.UserCacheService;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * UserMapper 写入后使用户缓存失效，包括缓存的“用户不存在”结果。
+ */
+@Component
+public class UserCacheInvalidationInterceptor extends WriteInvalidationInterceptor<UserCacheService> {
+    
+    public UserCacheInvalidationInterceptor() {
+        super(UserMapper.class, Set.of("insert", "update", "deleteById"), UserCacheService.class);
+    }
+    
+    @Override
+    protected Runnable invalidation(UserCacheService cache, String statement, Object parameter) {
+        if (parameter instanceof User user && user.getUid() != null) {
+            return () -> cache.invalidate(user.getUid());
+        }
+        if (param(parameter, "uid") instanceof String uid) {
+            return () -> cache.invalidate(uid);
+        }
+        return cache::invalidateAll;
+    }
+}
@@ -0,0 +1,99 @@
+package com.valueguard.config;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 拦截某个 Mapper 的写语句，使对应的内存数据（缓存、索引）失效。子类只给出语句及参数到失效动作的对应关系。
+ * 在事务中执行时，提交后会再执行一次，防止提交前被并发读重新装入旧值。
+ */
+public abstract class WriteInvalidationInterceptor<C> implements Interceptor {
+    
+    private final String namespace;
+    
+    private final Set<String> statements;
+    
+    private final Class<C> targetType;
+    
+    // 按类型延迟获取，缓存依赖 Mapper，直接注入会与 SqlSessionFactory 形成循环依赖
+    @Autowired
+    private BeanFactory beanFactory;
+    
+    protected WriteInvalidationInterceptor(Class<?> mapper, Set<String> statements, Class<C> targetType) {
+        this.namespace = mapper.getName() + ".";
+        this.statements = statements;
+        this.targetType = targetType;
+    }
+    
+    /**
+     * statement 为不带命名空间的语句名，parameter 为 MyBatis 收到的原始参数。
+     */
+    protected abstract Runnable invalidation(C target, String statement, Object parameter);
+    
+    /**
+     * 是否在语句执行后立即失效一次。失效动作在回滚时不可撤销的（如改写索引）应返回 false，只在提交后执行。
+     */
+    protected boolean invalidateBeforeCommit() {
+        return true;
+    }
+    
+    /**
+     * 取多参数语句的命名参数；MyBatis 的参数 Map 在键不存在时会抛异常，不是 Map 或没有该键时返回 null。
+     */
+    protected static Object param(Object parameter, String name) {
+        if (parameter instanceof Map<?, ?> params && params.containsKey(name)) {
+            return params.get(name);
+        }
+        return null;
+    }
+    
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        String id = ((MappedStatement) invocation.getArgs()[0]).getId();
+        if (!id.startsWith(namespace) || !statements.contains(id.substring(namespace.length()))) {
+            return result;
+        }
+        Runnable invalidation = invalidation(beanFactory.getBean(targetType), id.substring(namespace.length()),
+                invocation.getArgs()[1]);
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (!inTransaction || invalidateBeforeCommit()) {
+            invalidation.run();
+        }
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+        return result;
+    }
+    
+    @Override
+    public Object plugin(Object target) {
+        // @Intercepts 不会被子类继承，由带注解的内部类包装
+        return Plugin.wrap(target, new ExecutorUpdate(this));
+    }
+    
+    @Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+    private record ExecutorUpdate(Interceptor delegate) implements Interceptor {
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            return delegate.intercept(invocation);
+        }
+    }
+}
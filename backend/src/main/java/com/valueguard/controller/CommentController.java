@@ -1,5 +1,6 @@
 package com.valueguard.controller;
 
+import com.valueguard.config.HttpCacheProperties;
 import com.valueguard.dto.ApiResponse;
 import com.valueguard.dto.PageResponse;
 import com.valueguard.dto.comment.CommentRequest;
@@ -7,9 +8,12 @@ import com.valueguard.dto.comment.CommentResponse;
 import com.valueguard.service.CommentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/incidents/{incidentId}/comments")
@@ -18,6 +22,9 @@ public class CommentController {
     @Autowired
     private CommentService commentService;
     
+    @Autowired
+    private HttpCacheProperties httpCacheProperties;
+    
     @PostMapping
     public ResponseEntity<ApiResponse<CommentResponse>> createComment(
             @PathVariable String incidentId,
@@ -38,10 +45,20 @@ public class CommentController {
             @PathVariable String incidentId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
         try {
-            PageResponse<CommentResponse> response = commentService.getComments(incidentId, page, size, sort);
-            return ResponseEntity.ok(ApiResponse.success(response));
+            String eTag = commentService.getCommentsETag(incidentId, page, size, sort, cursor);
+            if (webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.CACHE_CONTROL, httpCacheProperties.getComments())
+                        .build();
+            }
+            PageResponse<CommentResponse> response = commentService.getComments(incidentId, page, size, sort, cursor);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, httpCacheProperties.getComments())
+                    .body(ApiResponse.success(response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("获取评论列表失败：" + e.getMessage()));
@@ -1,13 +1,22 @@
 package com.valueguard.controller;
 
+import com.valueguard.config.HttpCacheProperties;
 import com.valueguard.dto.ApiResponse;
 import com.valueguard.dto.PageResponse;
 import com.valueguard.dto.company.CompanyResponse;
+import com.valueguard.dto.incident.CategoryFacet;
 import com.valueguard.dto.incident.IncidentResponse;
 import com.valueguard.service.CompanyService;
+import com.valueguard.service.FacetService;
+import com.valueguard.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/companies")
@@ -16,12 +25,28 @@ public class CompanyController {
     @Autowired
     private CompanyService companyService;
     
+    @Autowired
+    private FacetService facetService;
+    
+    @Autowired
+    private HttpCacheProperties httpCacheProperties;
+    
     @GetMapping("/{name}")
     public ResponseEntity<ApiResponse<CompanyResponse>> getCompanyByName(
-            @PathVariable String name) {
+            @PathVariable String name,
+            WebRequest webRequest) {
         try {
+            // 公司信息来自缓存，由字段直接计算 ETag，命中时省去序列化
             CompanyResponse company = companyService.getCompanyByName(name);
-            return ResponseEntity.ok(ApiResponse.success(company));
+            String eTag = ETags.of(company.getId(), company.getName(), company.getLogoUrl(), company.getIncidentCount());
+            if (webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.CACHE_CONTROL, httpCacheProperties.getCompany())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, httpCacheProperties.getCompany())
+                    .body(ApiResponse.success(company));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("获取公司信息失败：" + e.getMessage()));
@@ -32,14 +57,24 @@ public class CompanyController {
     public ResponseEntity<ApiResponse<PageResponse<IncidentResponse>>> getCompanyIncidents(
             @PathVariable String name,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         try {
-            PageResponse<IncidentResponse> response = companyService.getCompanyIncidents(name, page, size);
+            PageResponse<IncidentResponse> response = companyService.getCompanyIncidents(name, page, size, cursor);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("获取公司事件列表失败：" + e.getMessage()));
         }
     }
+    
+    @GetMapping("/{name}/facets")
+    public ResponseEntity<ApiResponse<List<CategoryFacet>>> getCompanyFacets(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(facetService.getCompanyFacets(name)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("获取分类统计失败：" + e.getMessage()));
+        }
+    }
 }
-
@@ -1,16 +1,30 @@
 package com.valueguard.controller;
 
+import com.valueguard.config.HttpCacheProperties;
 import com.valueguard.dto.ApiResponse;
 import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.incident.BatchIncidentRequest;
+import com.valueguard.dto.incident.BatchIncidentResponse;
+import com.valueguard.dto.incident.CategoryFacet;
 import com.valueguard.dto.incident.IncidentRequest;
 import com.valueguard.dto.incident.IncidentResponse;
 import com.valueguard.dto.incident.ReviewRequest;
+import com.valueguard.service.FacetService;
+import com.valueguard.service.IncidentBatchService;
 import com.valueguard.service.IncidentService;
+import com.valueguard.service.IncidentStreamService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/incidents")
@@ -19,6 +33,18 @@ public class IncidentController {
     @Autowired
     private IncidentService incidentService;
     
+    @Autowired
+    private IncidentBatchService incidentBatchService;
+    
+    @Autowired
+    private IncidentStreamService incidentStreamService;
+    
+    @Autowired
+    private FacetService facetService;
+    
+    @Autowired
+    private HttpCacheProperties httpCacheProperties;
+    
     @PostMapping
     public ResponseEntity<ApiResponse<IncidentResponse>> createIncident(
             @Valid @RequestBody IncidentRequest request,
@@ -33,14 +59,29 @@ public class IncidentController {
         }
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchIncidentResponse>> createIncidents(
+            @Valid @RequestBody BatchIncidentRequest request,
+            Authentication authentication) {
+        try {
+            String userId = authentication.getName();
+            BatchIncidentResponse response = incidentBatchService.createIncidents(request.getIncidents(), userId);
+            return ResponseEntity.ok(ApiResponse.success("批量提交完成", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("批量提交失败：" + e.getMessage()));
+        }
+    }
+    
     @GetMapping
     public ResponseEntity<ApiResponse<PageResponse<IncidentResponse>>> getIncidents(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String search,
-            @RequestParam(defaultValue = "date,desc") String sort) {
+            @RequestParam(defaultValue = "date,desc") String sort,
+            @RequestParam(required = false) String cursor) {
         try {
-            PageResponse<IncidentResponse> response = incidentService.getIncidents(page, size, search, sort);
+            PageResponse<IncidentResponse> response = incidentService.getIncidents(page, size, search, sort, cursor);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -48,11 +89,54 @@ public class IncidentController {
         }
     }
     
+    /**
+     * 各分类的事件数，用于渲染筛选项；带 search 时只统计搜索结果。
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<List<CategoryFacet>>> getFacets(
+            @RequestParam(required = false) String search) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(facetService.getFacets(search)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("获取分类统计失败：" + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 新事件的 SSE 推送，断线重连时浏览器会自动带上 Last-Event-ID 续传。
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamIncidents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            SseEmitter emitter = incidentStreamService.subscribe(lastEventId);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    // 关闭 Nginx 等反向代理的响应缓冲
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<IncidentResponse>> getIncidentById(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<IncidentResponse>> getIncidentById(@PathVariable String id, WebRequest webRequest) {
         try {
+            // 版本未变时直接返回 304，不执行详情查询和序列化
+            String eTag = incidentService.getIncidentETag(id);
+            if (eTag != null && webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.CACHE_CONTROL, httpCacheProperties.getIncident())
+                        .build();
+            }
             IncidentResponse incident = incidentService.getIncidentById(id);
-            return ResponseEntity.ok(ApiResponse.success(incident));
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, httpCacheProperties.getIncident())
+                    .body(ApiResponse.success(incident));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("获取事件详情失败：" + e.getMessage()));
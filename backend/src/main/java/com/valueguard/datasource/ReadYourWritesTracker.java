@@ -0,0 +1,45 @@
+package com.valueguard.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * 记录最近写过数据的用户。用户写入后的 stickiness 时间内，其只读请求仍走主库，
+ * 避免副本复制延迟导致读不到自己刚提交的内容。未登录的请求无法识别，不受影响。
+ */
+public class ReadYourWritesTracker {
+    
+    private final Cache<String, Boolean> recentWriters;
+    
+    public ReadYourWritesTracker(Duration stickiness) {
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .build();
+    }
+    
+    public void markCurrentUser() {
+        String userId = currentUserId();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+    
+    public boolean isCurrentUserSticky() {
+        String userId = currentUserId();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+    
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
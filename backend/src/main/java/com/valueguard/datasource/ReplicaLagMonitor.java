@@ -0,0 +1,79 @@
+package com.valueguard.datasource;
+
+import com.valueguard.config.ReplicaProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 定时查询副本的复制延迟。延迟超过 maxLag、复制中断或查询失败时判定副本不可用，
+ * 距上次成功检查超过三个周期也视为不可用；启动后首次检查成功前只读请求都走主库。
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final DataSource replica;
+    private final ReplicaProperties properties;
+    
+    // 最近一次检查得到的延迟（秒），未知时为 NaN
+    private volatile double lagSeconds = Double.NaN;
+    private volatile long checkedAt;
+    // 首次检查前为 null
+    private volatile Boolean available;
+    
+    public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.properties = properties;
+        Gauge.builder("replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "#{@replicaProperties.lagCheckInterval.toMillis()}")
+    public void check() {
+        Double lag = queryLag();
+        lagSeconds = lag != null ? lag : Double.NaN;
+        checkedAt = System.nanoTime();
+        boolean nowAvailable = lag != null && lag <= properties.getMaxLag().toMillis() / 1000.0;
+        if (!Boolean.valueOf(nowAvailable).equals(available)) {
+            if (nowAvailable) {
+                log.info("Replica caught up (lag {}s), routing read-only transactions to replica", lag);
+            } else {
+                log.warn("Replica lag {}s exceeds {}, routing reads to primary",
+                        lag != null ? lag : "unknown", properties.getMaxLag());
+            }
+        }
+        available = nowAvailable;
+    }
+    
+    public boolean isAvailable() {
+        long staleAfter = properties.getLagCheckInterval().toNanos() * 3;
+        return Boolean.TRUE.equals(available) && System.nanoTime() - checkedAt <= staleAfter;
+    }
+    
+    private Double queryLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            if (!resultSet.next()) {
+                // 不是副本（没有复制状态）
+                return null;
+            }
+            double lag = resultSet.getDouble(properties.getLagColumn());
+            // 复制线程停止时延迟为 NULL
+            return resultSet.wasNull() ? null : lag;
+        } catch (SQLException e) {
+            log.debug("Failed to query replica lag", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.valueguard.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 按当前事务决定连接来自主库还是副本：只读事务（包括 SUPPORTS 传播的只读方法）走副本，
+ * 其余（写事务、事务外的语句）走主库。只读事务在以下情况也回退到主库：当前用户刚写过数据，或副本延迟过大。
+ * 需要包在 LazyConnectionDataSourceProxy 里使用，事务开始时的只读标记在真正取连接时才已设置。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    
+    private final ReadYourWritesTracker readYourWrites;
+    private final ReplicaLagMonitor lagMonitor;
+    
+    private final Counter writes;
+    private final Counter sticky;
+    private final Counter lagging;
+    private final Counter replicaReads;
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWrites,
+                                    ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        writes = route(meterRegistry, PRIMARY, "write");
+        sticky = route(meterRegistry, PRIMARY, "read_your_writes");
+        lagging = route(meterRegistry, PRIMARY, "replica_lag");
+        replicaReads = route(meterRegistry, REPLICA, "read_only");
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        if (readYourWrites.isCurrentUserSticky()) {
+            sticky.increment();
+            return PRIMARY;
+        }
+        if (!lagMonitor.isAvailable()) {
+            lagging.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+    
+    private static Counter route(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
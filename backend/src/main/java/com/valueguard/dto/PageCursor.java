@@ -0,0 +1,56 @@
+package com.valueguard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：记录上一页最后一条记录的排序键 (time, id)，按评论数排序时为 (count, id)。
+ * time 为空表示已翻到排序键为 NULL 的尾部。对客户端是不透明的 Base64 字符串。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor {
+    private LocalDateTime time;
+    private String id;
+    private Long count;
+    
+    public PageCursor(LocalDateTime time, String id) {
+        this.time = time;
+        this.id = id;
+    }
+    
+    public static PageCursor ofCount(long count, String id) {
+        return new PageCursor(null, id, count);
+    }
+    
+    public String encode() {
+        String key = count != null ? "#" + count : time != null ? time.toString() : "";
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String key = raw.substring(0, separator);
+            String id = raw.substring(separator + 1);
+            if (key.startsWith("#")) {
+                return ofCount(Long.parseLong(key.substring(1)), id);
+            }
+            return new PageCursor(key.isEmpty() ? null : LocalDateTime.parse(key), id);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("无效的分页游标");
+        }
+    }
+}
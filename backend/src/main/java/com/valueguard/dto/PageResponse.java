@@ -15,5 +15,10 @@ public class PageResponse<T> {
     private int totalPages;
     private int currentPage;
     private int pageSize;
+    // 下一页游标，没有更多数据时为 null
+    private String nextCursor;
+    
+    public PageResponse(List<T> content, long totalElements, int totalPages, int currentPage, int pageSize) {
+        this(content, totalElements, totalPages, currentPage, pageSize, null);
+    }
 }
-
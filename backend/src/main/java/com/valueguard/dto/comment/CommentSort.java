@@ -0,0 +1,34 @@
+package com.valueguard.dto.comment;
+
+/**
+ * 评论列表的排序方向，均由 comments 表 (incident_id, created_at, id) 索引提供。
+ */
+public enum CommentSort {
+    CREATED_AT_DESC(false),
+    CREATED_AT_ASC(true);
+    
+    private final boolean ascending;
+    
+    CommentSort(boolean ascending) {
+        this.ascending = ascending;
+    }
+    
+    public boolean isAscending() {
+        return ascending;
+    }
+    
+    /**
+     * 解析 "createdAt,desc" 形式的排序参数，无法识别时回退到按时间倒序。
+     */
+    public static CommentSort from(String sort) {
+        if (sort == null) {
+            return CREATED_AT_DESC;
+        }
+        String[] parts = sort.trim().split(",");
+        String direction = parts.length > 1 ? parts[1].trim() : "desc";
+        if ("createdAt".equalsIgnoreCase(parts[0].trim()) && "asc".equalsIgnoreCase(direction)) {
+            return CREATED_AT_ASC;
+        }
+        return CREATED_AT_DESC;
+    }
+}
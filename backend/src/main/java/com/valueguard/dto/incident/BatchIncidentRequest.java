@@ -0,0 +1,13 @@
+package com.valueguard.dto.incident;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchIncidentRequest {
+    // 逐条校验，单条不合法不影响其他事件
+    @NotEmpty(message = "事件列表不能为空")
+    private List<IncidentRequest> incidents;
+}
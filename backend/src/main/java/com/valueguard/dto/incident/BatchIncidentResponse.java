@@ -0,0 +1,16 @@
+package com.valueguard.dto.incident;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIncidentResponse {
+    private int succeeded;
+    private int failed;
+    private List<BatchIncidentResult> results;
+}
@@ -0,0 +1,24 @@
+package com.valueguard.dto.incident;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIncidentResult {
+    // 对应请求列表中的下标
+    private int index;
+    private boolean success;
+    private String id;
+    private String error;
+    
+    public static BatchIncidentResult success(int index, String id) {
+        return new BatchIncidentResult(index, true, id, null);
+    }
+    
+    public static BatchIncidentResult failure(int index, String error) {
+        return new BatchIncidentResult(index, false, null, error);
+    }
+}
@@ -0,0 +1,13 @@
+package com.valueguard.dto.incident;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryFacet {
+    private String category;
+    private long count;
+}
@@ -21,5 +21,7 @@ public class IncidentResponse {
     private String userId;
     private UserResponse user;
     private LocalDateTime date;
+    private long commentCount;
+    private LocalDateTime lastCommentAt;
 }
 
@@ -0,0 +1,54 @@
+package com.valueguard.dto.incident;
+
+/**
+ * 事件列表支持的排序方式，每一种都对应 incidents 表上的一个复合索引。
+ */
+public enum IncidentSort {
+    DATE_DESC(false),
+    DATE_ASC(true),
+    // 评论最多，(comment_count, id) 索引
+    MOST_DISCUSSED(false),
+    // 最近有评论，(last_comment_at, id) 索引；没有评论的事件排在最后
+    RECENTLY_ACTIVE(false);
+    
+    private final boolean ascending;
+    
+    IncidentSort(boolean ascending) {
+        this.ascending = ascending;
+    }
+    
+    public boolean isAscending() {
+        return ascending;
+    }
+    
+    public boolean isByCommentCount() {
+        return this == MOST_DISCUSSED;
+    }
+    
+    public boolean isByActivity() {
+        return this == RECENTLY_ACTIVE;
+    }
+    
+    /**
+     * 解析 "date,desc"、"comments,desc"、"activity,desc" 形式的排序参数，
+     * 无法识别时回退到按日期倒序。评论数与活跃时间只支持倒序。
+     */
+    public static IncidentSort from(String sort) {
+        if (sort == null) {
+            return DATE_DESC;
+        }
+        String[] parts = sort.trim().split(",");
+        String field = parts[0].trim();
+        String direction = parts.length > 1 ? parts[1].trim() : "desc";
+        if ("comments".equalsIgnoreCase(field)) {
+            return MOST_DISCUSSED;
+        }
+        if ("activity".equalsIgnoreCase(field)) {
+            return RECENTLY_ACTIVE;
+        }
+        if ("date".equalsIgnoreCase(field) && "asc".equalsIgnoreCase(direction)) {
+            return DATE_ASC;
+        }
+        return DATE_DESC;
+    }
+}
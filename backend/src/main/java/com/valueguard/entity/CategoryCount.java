@@ -0,0 +1,18 @@
+package com.valueguard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * incident_category_counts 的一行；写入时 incidentCount 为增量。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryCount {
+    // 空字符串表示全站合计
+    private String companyName;
+    private String category;
+    private long incidentCount;
+}
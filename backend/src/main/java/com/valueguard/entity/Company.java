@@ -13,6 +13,7 @@ public class Company {
     private String id;
     private String name;
     private String logoUrl;
+    private long incidentCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -22,4 +22,7 @@ public class Incident {
     private LocalDateTime date;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // 冗余的评论数与最后评论时间，随发表评论增量维护
+    private long commentCount;
+    private LocalDateTime lastCommentAt;
 }
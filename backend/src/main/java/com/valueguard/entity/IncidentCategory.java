@@ -0,0 +1,13 @@
+package com.valueguard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentCategory {
+    private String incidentId;
+    private String category;
+}
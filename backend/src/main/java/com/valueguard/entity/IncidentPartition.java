@@ -0,0 +1,18 @@
+package com.valueguard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * incidents 的一个月分区，名称为 pYYYYMM，包含 lessThan 之前一个月的事件。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentPartition {
+    private String name;
+    private LocalDate lessThan;
+}
@@ -0,0 +1,18 @@
+package com.valueguard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事件详情的版本信息：事件与作者中较晚的更新时间，以及评论数，用于生成 ETag。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentVersion {
+    private LocalDateTime updatedAt;
+    private long commentCount;
+}
@@ -0,0 +1,18 @@
+package com.valueguard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 列表的版本信息：条数和最新一条的创建时间，用于生成 ETag。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListVersion {
+    private long count;
+    private LocalDateTime lastCreatedAt;
+}
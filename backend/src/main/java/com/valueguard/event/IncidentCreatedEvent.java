@@ -0,0 +1,14 @@
+package com.valueguard.event;
+
+import com.valueguard.entity.Incident;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 事件创建成功后发布；监听方应使用 AFTER_COMMIT 阶段，避免处理回滚的数据。
+ */
+@Getter
+@AllArgsConstructor
+public class IncidentCreatedEvent {
+    private final Incident incident;
+}
@@ -0,0 +1,16 @@
+package com.valueguard.mapper;
+
+import com.valueguard.entity.CategoryCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface CategoryCountMapper {
+    List<CategoryCount> findByCompanyName(@Param("companyName") String companyName);
+    int addCounts(@Param("rows") List<CategoryCount> rows);
+    int deleteAll();
+    int insertTotals();
+    int insertCompanyCounts();
+}
@@ -1,6 +1,9 @@
 package com.valueguard.mapper;
 
+import com.valueguard.dto.PageCursor;
+import com.valueguard.dto.comment.CommentSort;
 import com.valueguard.entity.Comment;
+import com.valueguard.entity.ListVersion;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -11,7 +14,15 @@ public interface CommentMapper {
     Comment findById(@Param("id") String id);
     List<Comment> findByIncidentId(@Param("incidentId") String incidentId);
     List<Comment> findByIncidentIdOrderByCreatedAtDesc(@Param("incidentId") String incidentId);
+    List<Comment> findPageByIncidentId(@Param("incidentId") String incidentId,
+                                       @Param("sort") CommentSort sort,
+                                       @Param("cursor") PageCursor cursor,
+                                       @Param("offset") int offset,
+                                       @Param("limit") int limit);
+    long countByIncidentId(@Param("incidentId") String incidentId);
+    ListVersion findVersionByIncidentId(@Param("incidentId") String incidentId);
     int insert(Comment comment);
+    int insertBatch(@Param("comments") List<Comment> comments);
     int update(Comment comment);
     int deleteById(@Param("id") String id);
     List<Comment> findAll();
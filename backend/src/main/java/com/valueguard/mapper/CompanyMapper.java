@@ -4,15 +4,21 @@ import com.valueguard.entity.Company;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface CompanyMapper {
     Company findById(@Param("id") String id);
     Company findByNameIgnoreCase(@Param("name") String name);
+    List<Company> findByNames(@Param("names") Collection<String> names);
     int insert(Company company);
+    int insertIgnore(@Param("companies") List<Company> companies);
     int update(Company company);
     int deleteById(@Param("id") String id);
+    int addIncidentCounts(@Param("deltas") Map<String, Long> deltas);
+    int reconcileIncidentCounts();
     List<Company> findAll();
 }
 
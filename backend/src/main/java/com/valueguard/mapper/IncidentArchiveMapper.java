@@ -0,0 +1,68 @@
+package com.valueguard.mapper;
+
+import com.valueguard.dto.PageCursor;
+import com.valueguard.dto.comment.CommentSort;
+import com.valueguard.dto.incident.IncidentSort;
+import com.valueguard.entity.Comment;
+import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentCategory;
+import com.valueguard.entity.IncidentPartition;
+import com.valueguard.entity.IncidentVersion;
+import com.valueguard.entity.ListVersion;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 归档表的读取、归档任务的搬移语句，以及 incidents 月分区的维护。
+ */
+@Mapper
+public interface IncidentArchiveMapper {
+    Incident findById(@Param("id") String id);
+    List<Incident> findByIds(@Param("ids") Collection<String> ids);
+    List<Incident> findAll(@Param("sort") IncidentSort sort,
+                           @Param("cursor") PageCursor cursor,
+                           @Param("offset") int offset,
+                           @Param("limit") int limit);
+    List<Incident> findByCompanyName(@Param("companyName") String companyName,
+                                     @Param("sort") IncidentSort sort,
+                                     @Param("cursor") PageCursor cursor,
+                                     @Param("offset") int offset,
+                                     @Param("limit") int limit);
+    List<Incident> findBatchForIndex(@Param("afterId") String afterId, @Param("limit") int limit);
+    List<IncidentCategory> findCategoriesByIncidentIds(@Param("ids") Collection<String> ids);
+    long countAll();
+    long countByCompanyName(@Param("companyName") String companyName);
+    IncidentVersion findVersionById(@Param("id") String id);
+    boolean existsById(@Param("id") String id);
+
+    List<Comment> findCommentPage(@Param("incidentId") String incidentId,
+                                  @Param("sort") CommentSort sort,
+                                  @Param("cursor") PageCursor cursor,
+                                  @Param("offset") int offset,
+                                  @Param("limit") int limit);
+    long countComments(@Param("incidentId") String incidentId);
+    ListVersion findCommentVersion(@Param("incidentId") String incidentId);
+
+    List<String> findIdsToArchive(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    int archiveIncidents(@Param("ids") List<String> ids, @Param("cutoff") LocalDateTime cutoff);
+    int archiveCategories(@Param("ids") List<String> ids);
+    int archiveComments(@Param("ids") List<String> ids);
+    int archiveReviewRequests(@Param("ids") List<String> ids);
+    int deleteReviewRequests(@Param("ids") List<String> ids);
+    int deleteComments(@Param("ids") List<String> ids);
+    int deleteCategories(@Param("ids") List<String> ids);
+    int deleteIncidents(@Param("ids") List<String> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    List<String> findPartitions();
+    boolean hasRowsInPartition(@Param("partition") String partition);
+    int addPartitions(@Param("partitions") List<IncidentPartition> partitions);
+    int dropPartition(@Param("partition") String partition);
+
+    default List<Incident> hydrateCategories(List<Incident> incidents) {
+        return IncidentMapper.hydrateCategories(incidents, this::findCategoriesByIncidentIds);
+    }
+}
@@ -1,22 +1,85 @@
 package com.valueguard.mapper;
 
+import com.valueguard.dto.PageCursor;
+import com.valueguard.dto.incident.IncidentSort;
+import com.valueguard.entity.CategoryCount;
 import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentCategory;
+import com.valueguard.entity.IncidentVersion;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Mapper
 public interface IncidentMapper {
     Incident findById(@Param("id") String id);
-    List<Incident> findByCompanyName(@Param("companyName") String companyName);
-    List<Incident> searchIncidents(@Param("search") String search);
-    List<Incident> findAll();
+    List<Incident> findByCompanyName(@Param("companyName") String companyName,
+                                     @Param("sort") IncidentSort sort,
+                                     @Param("cursor") PageCursor cursor,
+                                     @Param("offset") int offset,
+                                     @Param("limit") int limit);
+    List<Incident> searchIncidents(@Param("search") String search,
+                                   @Param("sort") IncidentSort sort,
+                                   @Param("cursor") PageCursor cursor,
+                                   @Param("offset") int offset,
+                                   @Param("limit") int limit);
+    List<Incident> findAll(@Param("sort") IncidentSort sort,
+                           @Param("cursor") PageCursor cursor,
+                           @Param("offset") int offset,
+                           @Param("limit") int limit);
+    List<Incident> findByIds(@Param("ids") Collection<String> ids);
+    List<Incident> findBatchForIndex(@Param("afterId") String afterId, @Param("limit") int limit);
+    List<IncidentCategory> findCategoriesByIncidentIds(@Param("ids") Collection<String> ids);
+    long countAll();
+    long countSearch(@Param("search") String search);
+    List<CategoryCount> countCategoriesBySearch(@Param("search") String search);
     long countByCompanyName(@Param("companyName") String companyName);
     int insert(Incident incident);
     int insertCategories(@Param("id") String id, @Param("categories") List<String> categories);
+    int insertBatch(@Param("incidents") List<Incident> incidents);
+    int insertCategoriesBatch(@Param("categories") List<IncidentCategory> categories);
     int update(Incident incident);
     int deleteById(@Param("id") String id);
+    int addCommentActivity(@Param("id") String id,
+                           @Param("delta") long delta,
+                           @Param("lastCommentAt") LocalDateTime lastCommentAt);
+    List<String> findIdsAfter(@Param("afterId") String afterId, @Param("limit") int limit);
+    int repairCommentActivity(@Param("ids") List<String> ids);
+    IncidentVersion findVersionById(@Param("id") String id);
     boolean existsById(@Param("id") String id);
+    String lockById(@Param("id") String id);
+    
+    /**
+     * 查询的第二阶段：用一次 IN 查询批量加载分类并回填到事件上，
+     * 避免列表查询按分类扇出成多行。
+     */
+    default List<Incident> hydrateCategories(List<Incident> incidents) {
+        return hydrateCategories(incidents, this::findCategoriesByIncidentIds);
+    }
+    
+    static List<Incident> hydrateCategories(List<Incident> incidents,
+                                            Function<Collection<String>, List<IncidentCategory>> loader) {
+        if (incidents.isEmpty()) {
+            return incidents;
+        }
+        Map<String, Incident> byId = new HashMap<>();
+        for (Incident incident : incidents) {
+            incident.setCategories(new ArrayList<>());
+            byId.put(incident.getId(), incident);
+        }
+        for (IncidentCategory row : loader.apply(byId.keySet())) {
+            Incident incident = byId.get(row.getIncidentId());
+            if (incident != null) {
+                incident.getCategories().add(row.getCategory());
+            }
+        }
+        return incidents;
+    }
 }
-
@@ -0,0 +1,442 @@
+package com.valueguard.search;
+
+import com.valueguard.config.ArchiveProperties;
+import com.valueguard.config.SearchProperties;
+import com.valueguard.entity.Incident;
+import com.valueguard.event.IncidentCreatedEvent;
+import com.valueguard.mapper.IncidentArchiveMapper;
+import com.valueguard.mapper.IncidentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * 事件全文检索的内存倒排索引。
+ * 索引标题、公司名称、分类和描述，按 BM25 打分，只返回命中的事件 ID，由调用方回数据库加载详情。
+ * 启动后在后台线程全量构建，之后随事件创建增量更新；构建完成前 {@link #search} 返回 null。
+ * 事件修改或删除时由 {@link com.valueguard.config.SearchIndexInvalidationInterceptor} 重建或移除对应文档：
+ * 旧文档只做删除标记，倒排表中的位置在下次全量构建前保留，搜索时跳过。
+ */
+@Component
+public class IncidentSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(IncidentSearchIndex.class);
+    
+    private static final Comparator<ScoredDoc> RANKING = Comparator
+            .comparingDouble(ScoredDoc::score)
+            .thenComparingLong(ScoredDoc::date)
+            .reversed();
+    
+    @Autowired
+    private IncidentMapper incidentMapper;
+    
+    @Autowired
+    private SearchProperties searchProperties;
+    
+    @Autowired
+    private IncidentArchiveMapper incidentArchiveMapper;
+    
+    @Autowired
+    private ArchiveProperties archiveProperties;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    // 已删除的文档序号，其倒排项保留到重建索引
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+    private int[] lengths = new int[1024];
+    private long[] dates = new long[1024];
+    // 每个文档的分类序号，用于在搜索结果上统计分类
+    private int[][] docCategories = new int[1024][];
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private long totalLength;
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!searchProperties.isEnabled()) {
+            return;
+        }
+        Thread builder = new Thread(this::build, "search-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncidentCreated(IncidentCreatedEvent event) {
+        if (searchProperties.isEnabled()) {
+            index(event.getIncident());
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size() - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void index(Incident incident) {
+        Document document = document(incident);
+        lock.writeLock().lock();
+        try {
+            if (!ordinals.containsKey(incident.getId())) {
+                add(incident, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 从热表重新加载事件并替换其文档；事件已不在热表中时移除。
+     */
+    public void reindex(String id) {
+        if (!searchProperties.isEnabled()) {
+            return;
+        }
+        Incident incident = incidentMapper.findById(id);
+        if (incident == null) {
+            remove(id);
+            return;
+        }
+        incidentMapper.hydrateCategories(List.of(incident));
+        Document document = document(incident);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            add(incident, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String id) {
+        if (!searchProperties.isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // 调用方需持有写锁
+    private void removeLocked(String id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            removed.set(ordinal);
+            removedCount++;
+            totalLength -= lengths[ordinal];
+        }
+    }
+    
+    private Document document(Incident incident) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addField(termFrequencies, incident.getTitle(), searchProperties.getTitleWeight());
+        addField(termFrequencies, incident.getCompanyName(), searchProperties.getCompanyWeight());
+        if (incident.getCategories() != null) {
+            for (String category : incident.getCategories()) {
+                addField(termFrequencies, category, searchProperties.getCategoryWeight());
+            }
+        }
+        addField(termFrequencies, incident.getDescription(), searchProperties.getDescriptionWeight());
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        long date = incident.getDate() != null ? incident.getDate().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return new Document(termFrequencies, length, date);
+    }
+    
+    // 调用方需持有写锁，且 ordinals 中没有该事件
+    private void add(Incident incident, Document document) {
+        Map<String, Integer> termFrequencies = document.termFrequencies();
+        int length = document.length();
+        int ordinal = ids.size();
+        ids.add(incident.getId());
+        ordinals.put(incident.getId(), ordinal);
+        if (ordinal == lengths.length) {
+            lengths = Arrays.copyOf(lengths, ordinal * 2);
+            dates = Arrays.copyOf(dates, ordinal * 2);
+            docCategories = Arrays.copyOf(docCategories, ordinal * 2);
+        }
+        lengths[ordinal] = length;
+        dates[ordinal] = document.date();
+        docCategories[ordinal] = categoryOrdinals(incident.getCategories());
+        totalLength += length;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(ordinal, entry.getValue());
+        }
+    }
+    
+    /**
+     * 返回匹配全部查询词的事件，按相关度降序分页。
+     * 索引尚未就绪或查询无法由索引回答（例如单个汉字）时返回 null，调用方应回退到数据库查询。
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        if (!ready) {
+            return null;
+        }
+        LinkedHashSet<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || terms.stream().anyMatch(Tokenizer::isCjkUnigram)) {
+            return null;
+        }
+        
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postingLists(terms);
+            if (lists == null) {
+                return new SearchResult(List.of(), 0);
+            }
+            
+            int documentCount = ids.size() - removedCount;
+            if (documentCount == 0) {
+                return new SearchResult(List.of(), 0);
+            }
+            double averageLength = (double) totalLength / documentCount;
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                // 文档频率包含已删除的文档，重建索引前 IDF 略偏低
+                int df = Math.min(lists[i].size(), documentCount);
+                idf[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+            
+            int wanted = offset + limit;
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(RANKING.reversed());
+            int[] positions = new int[lists.length];
+            long total = 0;
+            Postings shortest = lists[0];
+            for (int i = 0; i < shortest.size(); i++) {
+                int doc = shortest.docs[i];
+                if (removed.get(doc)) {
+                    continue;
+                }
+                double score = termScore(idf[0], shortest.frequencies[i], doc, averageLength);
+                boolean matched = true;
+                for (int j = 1; j < lists.length && matched; j++) {
+                    int position = lists[j].advance(positions[j], doc);
+                    positions[j] = position;
+                    if (position < lists[j].size() && lists[j].docs[position] == doc) {
+                        score += termScore(idf[j], lists[j].frequencies[position], doc, averageLength);
+                    } else {
+                        matched = false;
+                    }
+                }
+                if (matched) {
+                    total++;
+                    top.offer(new ScoredDoc(doc, score, dates[doc]));
+                    if (top.size() > wanted) {
+                        top.poll();
+                    }
+                }
+            }
+            
+            List<ScoredDoc> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            List<String> page = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                page.add(ids.get(ranked.get(i).doc()));
+            }
+            return new SearchResult(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 统计匹配全部查询词的事件在各分类下的数量，与 {@link #search} 的结果集一致。
+     * 索引无法回答时返回 null。
+     */
+    public Map<String, Long> categoryCounts(String query) {
+        if (!ready) {
+            return null;
+        }
+        LinkedHashSet<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || terms.stream().anyMatch(Tokenizer::isCjkUnigram)) {
+            return null;
+        }
+        
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postingLists(terms);
+            if (lists == null) {
+                return Map.of();
+            }
+            long[] counts = new long[categoryNames.size()];
+            int[] positions = new int[lists.length];
+            Postings shortest = lists[0];
+            for (int i = 0; i < shortest.size(); i++) {
+                int doc = shortest.docs[i];
+                if (removed.get(doc)) {
+                    continue;
+                }
+                boolean matched = true;
+                for (int j = 1; j < lists.length && matched; j++) {
+                    positions[j] = lists[j].advance(positions[j], doc);
+                    matched = positions[j] < lists[j].size() && lists[j].docs[positions[j]] == doc;
+                }
+                if (matched) {
+                    for (int category : docCategories[doc]) {
+                        counts[category]++;
+                    }
+                }
+            }
+            Map<String, Long> result = new HashMap<>();
+            for (int category = 0; category < counts.length; category++) {
+                if (counts[category] > 0) {
+                    result.put(categoryNames.get(category), counts[category]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // 按长度升序排列的各查询词倒排表，有词不在索引中时返回 null；调用方需持有读锁
+    private Postings[] postingLists(Collection<String> terms) {
+        Postings[] lists = new Postings[terms.size()];
+        int n = 0;
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return null;
+            }
+            lists[n++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(Postings::size));
+        return lists;
+    }
+    
+    // 调用方需持有写锁
+    private int[] categoryOrdinals(List<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return new int[0];
+        }
+        return new LinkedHashSet<>(categories).stream()
+                .mapToInt(category -> categoryOrdinals.computeIfAbsent(category, name -> {
+                    categoryNames.add(name);
+                    return categoryNames.size() - 1;
+                }))
+                .toArray();
+    }
+    
+    private void build() {
+        long started = System.currentTimeMillis();
+        try {
+            indexAll((afterId, limit) -> incidentMapper.hydrateCategories(
+                    incidentMapper.findBatchForIndex(afterId, limit)));
+            if (archiveProperties.isEnabled()) {
+                // 归档事件同样可以搜到，详情由 IncidentArchiveService 回退到归档表加载；
+                // 构建期间被归档的事件在两张表中都可能出现，index 会跳过重复的 ID
+                indexAll((afterId, limit) -> incidentArchiveMapper.hydrateCategories(
+                        incidentArchiveMapper.findBatchForIndex(afterId, limit)));
+            }
+            ready = true;
+            log.info("Search index built: {} incidents, {} terms in {} ms",
+                    size(), postings.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Failed to build search index, falling back to database search", e);
+        }
+    }
+    
+    private void indexAll(BiFunction<String, Integer, List<Incident>> batches) {
+        int batchSize = searchProperties.getBuildBatchSize();
+        String afterId = "";
+        List<Incident> batch;
+        do {
+            batch = batches.apply(afterId, batchSize);
+            for (Incident incident : batch) {
+                index(incident);
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+    
+    private double termScore(double idf, int frequency, int doc, double averageLength) {
+        double k1 = searchProperties.getK1();
+        double b = searchProperties.getB();
+        double norm = k1 * (1 - b + b * lengths[doc] / averageLength);
+        return idf * frequency * (k1 + 1) / (frequency + norm);
+    }
+    
+    private static void addField(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+    
+    private record ScoredDoc(int doc, double score, long date) {
+    }
+    
+    private record Document(Map<String, Integer> termFrequencies, int length, long date) {
+    }
+    
+    /**
+     * 单个词的倒排表，文档序号按写入顺序递增，可以顺序归并求交。
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        // 从 from 开始找到第一个 >= doc 的位置
+        int advance(int from, int doc) {
+            int low = from;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.valueguard.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+    // 按相关度排序的当前页事件 ID
+    private List<String> ids;
+    private long total;
+}
@@ -0,0 +1,81 @@
+package com.valueguard.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 面向中英文混排文本的分词器：连续的字母数字作为一个词，
+ * 连续的中日韩文字切分为相邻二元组（bigram），单个孤立汉字保留为一元词。
+ */
+public final class Tokenizer {
+    
+    private Tokenizer() {
+    }
+    
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjk, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens);
+            }
+            i += Character.charCount(codePoint);
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens);
+        return tokens;
+    }
+    
+    /**
+     * 单个汉字只会出现在孤立的一元词中，索引无法可靠地匹配，调用方应改走其他检索方式。
+     */
+    public static boolean isCjkUnigram(String token) {
+        return token.codePointCount(0, token.length()) == 1 && isCjk(token.codePointAt(0));
+    }
+    
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+    
+    private static void flushCjk(StringBuilder run, List<String> tokens) {
+        if (run.length() == 0) {
+            return;
+        }
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(new String(codePoints, 0, 1));
+        } else {
+            for (int i = 0; i + 1 < codePoints.length; i++) {
+                tokens.add(new String(codePoints, i, 2));
+            }
+        }
+        run.setLength(0);
+    }
+    
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
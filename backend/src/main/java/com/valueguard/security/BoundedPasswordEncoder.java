@@ -0,0 +1,112 @@
+package com.valueguard.security;
+
+import com.valueguard.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在独立的定长线程池上执行 BCrypt，限制同时进行的哈希数，使登录高峰不会占满全部 CPU。
+ * 调用线程（Tomcat 工作线程）在哈希完成前仍然阻塞等待，并不会被释放；
+ * 队列满时立即拒绝，等待超过 timeout 时放弃，而不是让请求无限排队。
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    private final Counter timeouts;
+    
+    public BoundedPasswordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(properties.getStrength());
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        this.encodeTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("password.hashing.timeouts")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RuntimeException("系统繁忙，请稍后再试");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new RuntimeException("系统繁忙，请稍后再试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("请求已中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
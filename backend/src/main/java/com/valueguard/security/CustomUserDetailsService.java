@@ -2,6 +2,7 @@ package com.valueguard.security;
 
 import com.valueguard.entity.User;
 import com.valueguard.mapper.UserMapper;
+import com.valueguard.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -23,7 +24,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUid())
                 .password(user.getPassword())
-                .authorities("ROLE_USER")
+                .authorities(JwtUtil.DEFAULT_AUTHORITY)
                 .build();
     }
 }
@@ -4,15 +4,16 @@ import com.valueguard.dto.auth.*;
 import com.valueguard.entity.User;
 import com.valueguard.mapper.UserMapper;
 import com.valueguard.util.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Service
@@ -21,6 +22,9 @@ public class AuthService {
     @Autowired
     private UserMapper userMapper;
     
+    @Autowired
+    private UserCacheService userCacheService;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -28,9 +32,20 @@ public class AuthService {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private MeterRegistry meterRegistry;
+    
+    private Counter loginFailures;
     
-    @Transactional
+    // 与真实密码同等 cost 的占位哈希，用于不存在的账号
+    private String unknownAccountPassword;
+    
+    @PostConstruct
+    public void init() {
+        unknownAccountPassword = passwordEncoder.encode(UUID.randomUUID().toString());
+        loginFailures = Counter.builder("auth.login.failures").register(meterRegistry);
+    }
+    
+    // 不开启事务：BCrypt 计算期间不占用数据库连接，唯一约束由单条 INSERT 保证
     public UserResponse signupWithEmail(EmailSignupRequest request) {
         if (userMapper.existsByEmail(request.getEmail())) {
             throw new RuntimeException("该邮箱已被注册");
@@ -44,15 +59,18 @@ public class AuthService {
         user.setDisplayName(request.getDisplayName() != null ? request.getDisplayName() : 
                           request.getEmail().split("@")[0]);
         user.setPhotoURL("https://i.pravatar.cc/150?u=" + uid);
-        user.setCreatedAt(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
+        user.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        user.setUpdatedAt(user.getCreatedAt());
         
-        userMapper.insert(user);
+        try {
+            userMapper.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("该邮箱已被注册");
+        }
         
         return toUserResponse(user);
     }
     
-    @Transactional
     public UserResponse signupWithPhone(PhoneSignupRequest request) {
         String normalizedPhone = normalizePhoneNumber(request.getPhoneNumber());
         
@@ -76,10 +94,15 @@ public class AuthService {
         user.setPhoneNumber(normalizedPhone);
         user.setDisplayName(displayName);
         user.setPhotoURL("https://i.pravatar.cc/150?u=" + uid);
-        user.setCreatedAt(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        userMapper.insert(user);
+        user.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        user.setUpdatedAt(user.getCreatedAt());
+        
+        try {
+            userMapper.insert(user);
+        } catch (DuplicateKeyException e) {
+            // 唯一约束只在 email 上；未填邮箱时登录邮箱由手机号生成，冲突即手机号已被并发注册
+            throw new RuntimeException(request.getEmail() != null ? "该邮箱已被注册" : "该手机号已被注册");
+        }
         
         return toUserResponse(user);
     }
@@ -95,26 +118,16 @@ public class AuthService {
             user = userMapper.findByPhoneNumber(normalizedPhone);
         }
         
-        if (user == null) {
-            throw new RuntimeException("用户不存在");
-        }
-        
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        user.getUid(),
-                        request.getPassword()
-                )
-        );
-        
-        String uid = authentication.getName();
-        User authenticatedUser = userMapper.findById(uid);
-        
-        if (authenticatedUser == null) {
-            throw new RuntimeException("用户不存在");
+        // 账号不存在时也比对一次占位哈希，使响应时间不暴露账号是否存在
+        String encodedPassword = user != null ? user.getPassword() : unknownAccountPassword;
+        boolean matched = passwordEncoder.matches(request.getPassword(), encodedPassword);
+        if (user == null || !matched) {
+            loginFailures.increment();
+            throw new RuntimeException("账号或密码错误");
         }
         
-        String token = jwtUtil.generateToken(uid);
-        UserResponse userResponse = toUserResponse(authenticatedUser);
+        String token = jwtUtil.generateToken(user.getUid());
+        UserResponse userResponse = toUserResponse(user);
         
         return new LoginResponse(token, userResponse);
     }
@@ -144,7 +157,7 @@ public class AuthService {
     }
     
     public UserResponse getCurrentUser(String uid) {
-        User user = userMapper.findById(uid);
+        User user = userCacheService.findById(uid);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
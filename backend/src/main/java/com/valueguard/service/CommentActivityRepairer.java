@@ -0,0 +1,69 @@
+package com.valueguard.service;
+
+import com.valueguard.config.CounterProperties;
+import com.valueguard.mapper.IncidentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 校准 incidents 上冗余的 comment_count 与 last_comment_at。发表评论时已在同一事务内增量维护，
+ * 这里只修正绕过应用直接改库、删除评论等造成的偏差；按主键分批扫描，每批一条 UPDATE，只改有偏差的行。
+ */
+@Service
+public class CommentActivityRepairer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CommentActivityRepairer.class);
+    
+    @Autowired
+    private IncidentMapper incidentMapper;
+    
+    @Autowired
+    private IncidentPageCache incidentPageCache;
+    
+    @Autowired
+    private CounterProperties counterProperties;
+    
+    private final ReentrantLock repairLock = new ReentrantLock();
+    
+    @Scheduled(cron = "${counters.comment-repair-cron:0 30 4 * * *}")
+    public void scheduledRepair() {
+        long started = System.currentTimeMillis();
+        int updated = repair();
+        log.info("Repaired comment activity: {} incidents corrected in {} ms",
+                updated, System.currentTimeMillis() - started);
+    }
+    
+    /**
+     * 返回被修正的事件数。已有一次校准在进行时直接返回 0。
+     */
+    public int repair() {
+        if (!repairLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int batchSize = Math.max(1, counterProperties.getCommentRepairBatchSize());
+            int updated = 0;
+            String afterId = "";
+            List<String> ids;
+            do {
+                ids = incidentMapper.findIdsAfter(afterId, batchSize);
+                if (!ids.isEmpty()) {
+                    updated += incidentMapper.repairCommentActivity(ids);
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == batchSize);
+            if (updated > 0) {
+                incidentPageCache.invalidateAll();
+            }
+            return updated;
+        } finally {
+            repairLock.unlock();
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.valueguard.service;
 
+import com.valueguard.dto.PageCursor;
 import com.valueguard.dto.PageResponse;
 import com.valueguard.dto.comment.CommentRequest;
 import com.valueguard.dto.comment.CommentResponse;
+import com.valueguard.dto.comment.CommentSort;
 import com.valueguard.entity.Comment;
+import com.valueguard.entity.ListVersion;
 import com.valueguard.entity.User;
 import com.valueguard.mapper.CommentMapper;
+import com.valueguard.mapper.IncidentArchiveMapper;
 import com.valueguard.mapper.IncidentMapper;
-import com.valueguard.mapper.UserMapper;
+import com.valueguard.util.ETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,18 +34,42 @@ public class CommentService {
     private CommentMapper commentMapper;
     
     @Autowired
-    private UserMapper userMapper;
+    private UserCacheService userCacheService;
     
     @Autowired
     private IncidentMapper incidentMapper;
     
-    @Transactional
+    @Autowired
+    private CommentWriteBehindQueue writeBehindQueue;
+    
+    @Autowired
+    private IncidentArchiveService incidentArchiveService;
+    
+    @Autowired
+    private IncidentArchiveMapper archiveMapper;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter commentsCreated;
+    private Counter commentsQueued;
+    
+    @PostConstruct
+    public void init() {
+        commentsCreated = Counter.builder("comments.created").tag("mode", "sync").register(meterRegistry);
+        // 异步模式下按入队计数，写库失败的条数见 comments.write_behind.failed
+        commentsQueued = Counter.builder("comments.created").tag("mode", "write_behind").register(meterRegistry);
+    }
+    
     public CommentResponse createComment(String incidentId, CommentRequest request, String userId) {
         if (!incidentMapper.existsById(incidentId)) {
-            throw new RuntimeException("事件不存在");
+            throw incidentMissing(incidentId);
         }
         
-        User user = userMapper.findById(userId);
+        User user = userCacheService.findById(userId);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
@@ -45,45 +79,84 @@ public class CommentService {
         comment.setIncidentId(incidentId);
         comment.setText(request.getComment());
         comment.setUserId(userId);
-        comment.setCreatedAt(LocalDateTime.now());
-        comment.setUpdatedAt(LocalDateTime.now());
-        
-        commentMapper.insert(comment);
+        // 时间由服务端生成并写入，DATETIME 不保存小数秒，截断后响应与库中一致
+        comment.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        comment.setUpdatedAt(comment.getCreatedAt());
         
-        // 重新查询以获取完整数据
-        Comment saved = commentMapper.findById(comment.getId());
-        if (saved == null) {
-            throw new RuntimeException("创建评论失败");
+        if (writeBehindQueue.isEnabled()) {
+            // 入队即返回，评论在下一次批量写入后可见
+            writeBehindQueue.enqueue(comment);
+            commentsQueued.increment();
+            return toCommentResponse(comment, user);
         }
         
-        return toCommentResponse(saved, user);
+        // 评论与事件上的评论数在同一事务内写入。先更新事件行拿到排他锁，
+        // 否则并发评论在插入时各自持有外键检查的共享锁，再升级时会互相死锁。
+        // 分区后没有外键，事件在上面的检查之后被归档时由更新行数发现，不写入孤立的评论
+        transactionTemplate.executeWithoutResult(status -> {
+            if (incidentMapper.addCommentActivity(incidentId, 1, comment.getCreatedAt()) == 0) {
+                throw incidentMissing(incidentId);
+            }
+            commentMapper.insert(comment);
+        });
+        commentsCreated.increment();
+        
+        return toCommentResponse(comment, user);
     }
     
-    public PageResponse<CommentResponse> getComments(String incidentId, int page, int size, String sort) {
+    private RuntimeException incidentMissing(String incidentId) {
+        return new RuntimeException(incidentArchiveService.isArchived(incidentId) ? "事件已归档，不能再评论" : "事件不存在");
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public PageResponse<CommentResponse> getComments(String incidentId, int page, int size, String sort, String cursor) {
         int pageNumber = Math.max(0, page - 1);
         int pageSize = Math.max(1, Math.min(100, size));
+        CommentSort commentSort = CommentSort.from(sort);
+        PageCursor pageCursor = PageCursor.decode(cursor);
         
-        List<Comment> allComments = commentMapper.findByIncidentIdOrderByCreatedAtDesc(incidentId);
-        
-        // 手动分页
-        int total = allComments.size();
-        int totalPages = (total + pageSize - 1) / pageSize;
-        int start = pageNumber * pageSize;
-        int end = Math.min(start + pageSize, total);
+        // 事件归档时评论整体移入归档表，热表中没有评论时才可能在归档表中
+        long total = commentMapper.countByIncidentId(incidentId);
+        boolean archived = false;
+        if (total == 0 && incidentArchiveService.isEnabled()) {
+            total = archiveMapper.countComments(incidentId);
+            archived = total > 0;
+        }
+        List<Comment> pagedComments = archived
+                ? archiveMapper.findCommentPage(incidentId, commentSort, pageCursor, pageNumber * pageSize, pageSize)
+                : commentMapper.findPageByIncidentId(incidentId, commentSort, pageCursor, pageNumber * pageSize, pageSize);
         
-        List<Comment> pagedComments = start < total ? allComments.subList(start, end) : List.of();
+        int totalPages = (int) ((total + pageSize - 1) / pageSize);
+        String nextCursor = null;
+        if (pagedComments.size() == pageSize) {
+            Comment last = pagedComments.get(pagedComments.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
         
         return new PageResponse<>(
                 pagedComments.stream()
                         .map(this::toCommentResponse)
                         .collect(Collectors.toList()),
-                (long) total,
+                total,
                 totalPages,
                 pageNumber + 1,
-                pageSize
+                pageSize,
+                nextCursor
         );
     }
     
+    /**
+     * 评论列表的 ETag，由评论条数、最新评论时间和分页参数决定。
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public String getCommentsETag(String incidentId, int page, int size, String sort, String cursor) {
+        ListVersion version = commentMapper.findVersionByIncidentId(incidentId);
+        if (version.getCount() == 0 && incidentArchiveService.isEnabled()) {
+            version = archiveMapper.findCommentVersion(incidentId);
+        }
+        return ETags.of(incidentId, version.getCount(), version.getLastCreatedAt(), page, size, sort, cursor);
+    }
+    
     private CommentResponse toCommentResponse(Comment comment) {
         User user = comment.getUser();
         com.valueguard.dto.auth.UserResponse userResponse = null;
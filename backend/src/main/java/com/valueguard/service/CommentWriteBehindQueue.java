@@ -0,0 +1,226 @@
+package com.valueguard.service;
+
+import com.valueguard.config.CommentWriteBehindProperties;
+import com.valueguard.entity.Comment;
+import com.valueguard.mapper.CommentMapper;
+import com.valueguard.mapper.IncidentMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评论的异步写入队列。请求线程只负责入队，单个写线程把队列中的评论
+ * 攒成批次（满 maxBatchSize 条或等待 flushInterval 后），用一条多行 INSERT 提交。
+ * 停机时在 Web 服务器停止接收请求之后、其他 Bean 销毁之前，在 shutdownTimeout 内写完剩余评论。
+ */
+@Service
+public class CommentWriteBehindQueue implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteBehindQueue.class);
+    
+    @Autowired
+    private CommentWriteBehindProperties properties;
+    
+    @Autowired
+    private CommentMapper commentMapper;
+    
+    @Autowired
+    private IncidentMapper incidentMapper;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private BlockingQueue<Comment> queue;
+    private Thread writer;
+    private volatile boolean running;
+    
+    private Timer flushTimer;
+    private DistributionSummary batchSize;
+    private Counter rejected;
+    private Counter failed;
+    private Counter dropped;
+    
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        flushTimer = Timer.builder("comments.write_behind.flush")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("comments.write_behind.batch.size")
+                .register(meterRegistry);
+        rejected = Counter.builder("comments.write_behind.rejected")
+                .register(meterRegistry);
+        failed = Counter.builder("comments.write_behind.failed")
+                .register(meterRegistry);
+        dropped = Counter.builder("comments.write_behind.dropped")
+                .register(meterRegistry);
+        Gauge.builder("comments.write_behind.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        
+        running = true;
+        writer = new Thread(this::run, "comment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+    
+    public void enqueue(Comment comment) {
+        if (!running || !queue.offer(comment)) {
+            rejected.increment();
+            throw new RuntimeException("系统繁忙，请稍后再试");
+        }
+    }
+    
+    private void run() {
+        List<Comment> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private void collect(List<Comment> batch) throws InterruptedException {
+        Comment first = queue.poll(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+            if (queue.drainTo(batch, properties.getMaxBatchSize() - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return;
+            }
+            Comment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+    
+    private void flush(List<Comment> batch) {
+        batchSize.record(batch.size());
+        try {
+            int missing = flushTimer.record(() -> transactionTemplate.execute(status -> insert(batch)));
+            dropped.increment(missing);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush of {} comments failed, retrying one by one", batch.size(), e);
+        }
+        // 逐条重试，只丢弃自身写不进去的评论
+        for (Comment comment : batch) {
+            try {
+                dropped.increment(transactionTemplate.execute(status -> insert(List.of(comment))));
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Dropped comment {} on incident {}", comment.getId(), comment.getIncidentId(), e);
+            }
+        }
+    }
+    
+    /**
+     * 按事件合并后累加事件上的评论数，再写入评论。与同步发表评论一样先锁事件行，
+     * 并按事件 id 顺序加锁，避免与其他事务互相死锁。
+     * 入队后事件已被删除或归档的评论直接丢弃，不写入孤立的行，返回丢弃的条数。
+     */
+    private int insert(List<Comment> comments) {
+        Map<String, Activity> byIncident = new TreeMap<>();
+        for (Comment comment : comments) {
+            byIncident.computeIfAbsent(comment.getIncidentId(), id -> new Activity()).add(comment.getCreatedAt());
+        }
+        byIncident.forEach((incidentId, activity) -> activity.present =
+                incidentMapper.addCommentActivity(incidentId, activity.count, activity.lastCommentAt) > 0);
+        List<Comment> writable = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            if (byIncident.get(comment.getIncidentId()).present) {
+                writable.add(comment);
+            } else {
+                log.warn("Dropped comment {}, incident {} is no longer in the hot table",
+                        comment.getId(), comment.getIncidentId());
+            }
+        }
+        if (!writable.isEmpty()) {
+            commentMapper.insertBatch(writable);
+        }
+        return comments.size() - writable.size();
+    }
+    
+    private static class Activity {
+        private long count;
+        private LocalDateTime lastCommentAt;
+        private boolean present;
+        
+        private void add(LocalDateTime createdAt) {
+            count++;
+            if (lastCommentAt == null || createdAt.isAfter(lastCommentAt)) {
+                lastCommentAt = createdAt;
+            }
+        }
+    }
+    
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        // 不中断写线程，避免打断正在进行的数据库写入；它会在一个 flushInterval 内察觉并清空队列
+        running = false;
+        try {
+            writer.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.error("Comment writer did not drain in {}, {} queued comments lost",
+                    properties.getShutdownTimeout(), queue.size());
+        }
+        writer = null;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+    
+    @Override
+    public int getPhase() {
+        // 比 Web 服务器更晚停止，停止时已不会再有新的评论入队
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
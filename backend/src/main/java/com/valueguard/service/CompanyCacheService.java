@@ -0,0 +1,76 @@
+package com.valueguard.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.valueguard.config.CacheProperties;
+import com.valueguard.entity.Company;
+import com.valueguard.mapper.CompanyMapper;
+import com.valueguard.util.AsyncCaches;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 按规范化名称（去空格、小写）缓存公司，未命中的名称也会缓存，防止随机名称反复查库。
+ * 通过 CompanyMapper 的 insert/update/deleteById 写入后由
+ * {@link com.valueguard.config.CompanyCacheInvalidationInterceptor} 自动失效。
+ */
+@Service
+public class CompanyCacheService {
+    
+    @Autowired
+    private CompanyMapper companyMapper;
+    
+    @Autowired
+    private CacheProperties cacheProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private AsyncCache<String, Optional<Company>> companies;
+    
+    @PostConstruct
+    public void init() {
+        CacheProperties.Spec spec = cacheProperties.getCompany();
+        companies = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, spec.getMaxSize()))
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, companies, "company");
+    }
+    
+    public Company findByName(String name) {
+        // 与缓存键一致地去掉首尾空格再查，否则带空格的写法会把未命中记到规范化名称下
+        String trimmed = name.trim();
+        if (!cacheProperties.getCompany().isEnabled()) {
+            return companyMapper.findByNameIgnoreCase(trimmed);
+        }
+        return AsyncCaches.get(companies, canonicalName(trimmed),
+                key -> Optional.ofNullable(companyMapper.findByNameIgnoreCase(trimmed))).orElse(null);
+    }
+    
+    public void invalidate(String name) {
+        companies.synchronous().invalidate(canonicalName(name));
+    }
+    
+    public void invalidateById(String id) {
+        companies.synchronous().asMap().values()
+                .removeIf(company -> company.isPresent() && id.equals(company.get().getId()));
+        // 进行中的加载看不出是哪家公司，可能读到的是失效前的旧行，一并丢弃，结果不会写回缓存
+        companies.asMap().values().removeIf(load -> !load.isDone());
+    }
+    
+    public void invalidateAll() {
+        companies.synchronous().invalidateAll();
+    }
+    
+    public static String canonicalName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
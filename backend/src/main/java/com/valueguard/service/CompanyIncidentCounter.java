@@ -0,0 +1,129 @@
+package com.valueguard.service;
+
+import com.valueguard.config.CounterProperties;
+import com.valueguard.event.IncidentCreatedEvent;
+import com.valueguard.mapper.CompanyMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 维护 companies.incident_count。事件提交后只在内存中累加增量，
+ * 由定时任务合并成一条批量 UPDATE 写回；读取时用库中的值加上尚未写回的增量。
+ */
+@Service
+public class CompanyIncidentCounter {
+    
+    private static final Logger log = LoggerFactory.getLogger(CompanyIncidentCounter.class);
+    
+    @Autowired
+    private CompanyMapper companyMapper;
+    
+    @Autowired
+    private CompanyCacheService companyCacheService;
+    
+    @Autowired
+    private CounterProperties counterProperties;
+    
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+    
+    // 正在写回的增量，在写回提交并使缓存失效之前仍计入读取结果；只在持有 flushLock 时修改
+    private final ConcurrentHashMap<String, Long> flushing = new ConcurrentHashMap<>();
+    
+    // 写回与校准互斥
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncidentCreated(IncidentCreatedEvent event) {
+        increment(event.getIncident().getCompanyId(), 1);
+    }
+    
+    public void increment(String companyId, long delta) {
+        if (companyId != null) {
+            pending.computeIfAbsent(companyId, id -> new LongAdder()).add(delta);
+        }
+    }
+    
+    public long pendingDelta(String companyId) {
+        LongAdder adder = pending.get(companyId);
+        return (adder != null ? adder.sum() : 0L) + flushing.getOrDefault(companyId, 0L);
+    }
+    
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<String, Long> deltas = new HashMap<>();
+            pending.forEach((companyId, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    // 先登记为写回中再从累加器扣除，读取到的库值加增量在写回期间保持不变
+                    flushing.put(companyId, delta);
+                    adder.add(-delta);
+                    deltas.put(companyId, delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                companyMapper.addIncidentCounts(deltas);
+            } catch (RuntimeException e) {
+                // 写回失败时把增量还回去，下次重试
+                deltas.forEach(this::increment);
+                deltas.keySet().forEach(flushing::remove);
+                log.warn("Failed to flush incident counters for {} companies", deltas.size(), e);
+                return;
+            }
+            // 缓存中的公司仍是写回前的库值，失效之后才能不再叠加这部分增量
+            deltas.keySet().forEach(companyCacheService::invalidateById);
+            deltas.keySet().forEach(flushing::remove);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    /**
+     * 按 incidents 及其归档表重算所有公司的计数。计算期间新提交的事件可能被重复计入一次，下次校准时修正。
+     */
+    public int reconcile() {
+        flushLock.lock();
+        try {
+            // 待写回的增量对应的事件都已提交，会被重算包含在内
+            pending.values().forEach(LongAdder::reset);
+            int updated = companyMapper.reconcileIncidentCounts();
+            companyCacheService.invalidateAll();
+            return updated;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (counterProperties.isReconcileOnStartup()) {
+            long started = System.currentTimeMillis();
+            int updated = reconcile();
+            log.info("Reconciled incident counters: {} companies corrected in {} ms",
+                    updated, System.currentTimeMillis() - started);
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
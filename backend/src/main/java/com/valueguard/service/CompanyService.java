@@ -1,17 +1,30 @@
 package com.valueguard.service;
 
+import com.valueguard.dto.PageCursor;
 import com.valueguard.dto.PageResponse;
 import com.valueguard.dto.company.CompanyResponse;
 import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.dto.incident.IncidentSort;
 import com.valueguard.entity.Company;
 import com.valueguard.entity.Incident;
 import com.valueguard.mapper.CompanyMapper;
 import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,51 +37,159 @@ public class CompanyService {
     @Autowired
     private IncidentMapper incidentMapper;
     
+    @Autowired
+    private CompanyCacheService companyCacheService;
+    
+    @Autowired
+    private CompanyIncidentCounter companyIncidentCounter;
+    
+    @Autowired
+    private IncidentPageCache incidentPageCache;
+    
+    @Autowired
+    private IncidentArchiveService incidentArchiveService;
+    
+    private final SingleFlight<String, Company> companyCreations = new SingleFlight<>();
+    
     public CompanyResponse getCompanyByName(String name) {
-        Company company = companyMapper.findByNameIgnoreCase(name);
+        Company company = companyCacheService.findByName(name);
         
         if (company == null) {
-            // 如果公司不存在，创建一个新公司
-            company = new Company();
-            company.setId(UUID.randomUUID().toString());
-            company.setName(name);
-            company.setCreatedAt(LocalDateTime.now());
-            company.setUpdatedAt(LocalDateTime.now());
-            companyMapper.insert(company);
+            // 读接口不写库：尚未收录的公司返回空档案，公司在首次提交事件时创建
+            return new CompanyResponse(null, name, null,
+                    incidentMapper.countByCompanyName(name) + incidentArchiveService.countByCompanyName(name));
         }
         
-        long incidentCount = incidentMapper.countByCompanyName(name);
-        
         return new CompanyResponse(
                 company.getId(),
                 company.getName(),
                 company.getLogoUrl(),
-                incidentCount
+                company.getIncidentCount() + companyIncidentCounter.pendingDelta(company.getId())
         );
     }
     
-    public PageResponse<IncidentResponse> getCompanyIncidents(String name, int page, int size) {
+    /**
+     * 查找公司，不存在时创建。同名公司的并发首次创建会被合并，只执行一次 INSERT。
+     * 应在业务事务之外调用，避免其他等待者拿到尚未提交的公司。
+     */
+    public Company resolveOrCreate(String name) {
+        Company company = companyCacheService.findByName(name);
+        if (company != null) {
+            return company;
+        }
+        return companyCreations.execute(CompanyCacheService.canonicalName(name), () -> createCompany(name.trim()));
+    }
+    
+    /**
+     * 批量查找或创建公司，返回以规范化名称为键的映射。
+     * 一次 IN 查询加一条 INSERT IGNORE，应在业务事务之外调用。
+     */
+    public Map<String, Company> resolveOrCreateAll(Collection<String> names) {
+        Map<String, String> namesByCanonical = new LinkedHashMap<>();
+        for (String name : names) {
+            namesByCanonical.putIfAbsent(CompanyCacheService.canonicalName(name), name.trim());
+        }
+        
+        Map<String, Company> resolved = new HashMap<>();
+        indexByCanonicalName(resolved, companyMapper.findByNames(namesByCanonical.values()));
+        
+        List<Company> missing = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        namesByCanonical.forEach((canonical, name) -> {
+            if (!resolved.containsKey(canonical)) {
+                Company company = new Company();
+                company.setId(UUID.randomUUID().toString());
+                company.setName(name);
+                company.setCreatedAt(now);
+                company.setUpdatedAt(now);
+                missing.add(company);
+            }
+        });
+        if (!missing.isEmpty()) {
+            companyMapper.insertIgnore(missing);
+            indexByCanonicalName(resolved, companyMapper.findByNames(
+                    missing.stream().map(Company::getName).collect(Collectors.toList())));
+        }
+        
+        // 排序规则认为相同、但小写后不同的名称（如全角字符），逐个解析
+        namesByCanonical.forEach((canonical, name) -> {
+            if (!resolved.containsKey(canonical)) {
+                resolved.put(canonical, resolveOrCreate(name));
+            }
+        });
+        return resolved;
+    }
+    
+    private void indexByCanonicalName(Map<String, Company> resolved, List<Company> companies) {
+        for (Company company : companies) {
+            resolved.put(CompanyCacheService.canonicalName(company.getName()), company);
+        }
+    }
+    
+    private Company createCompany(String name) {
+        // 绕过缓存复查，缓存里可能还是未命中的记录
+        Company existing = companyMapper.findByNameIgnoreCase(name);
+        if (existing != null) {
+            return existing;
+        }
+        
+        Company company = new Company();
+        company.setId(UUID.randomUUID().toString());
+        company.setName(name);
+        company.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        company.setUpdatedAt(company.getCreatedAt());
+        try {
+            companyMapper.insert(company);
+        } catch (DuplicateKeyException e) {
+            // 其他实例抢先创建了同名公司
+            return companyMapper.findByNameIgnoreCase(name);
+        }
+        return company;
+    }
+    
+    @PostConstruct
+    public void registerPageLoader() {
+        incidentPageCache.register(IncidentPageCache.COMPANY, key -> loadCompanyIncidents(
+                key.getCompany(), key.getPage() - 1, key.getSize(), null));
+    }
+    
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public PageResponse<IncidentResponse> getCompanyIncidents(String name, int page, int size, String cursor) {
         int pageNumber = Math.max(0, page - 1);
         int pageSize = Math.max(1, Math.min(100, size));
         
-        List<Incident> allIncidents = incidentMapper.findByCompanyName(name);
-        
-        // 手动分页
-        int total = allIncidents.size();
-        int totalPages = (total + pageSize - 1) / pageSize;
-        int start = pageNumber * pageSize;
-        int end = Math.min(start + pageSize, total);
+        if (incidentPageCache.isCacheable(pageNumber + 1, cursor)) {
+            // 排序规则不区分大小写，用规范化名称作键即可覆盖同一公司的不同写法
+            return incidentPageCache.get(new IncidentPageCache.Key(IncidentPageCache.COMPANY,
+                    CompanyCacheService.canonicalName(name), null, IncidentSort.DATE_DESC, pageNumber + 1, pageSize));
+        }
+        return loadCompanyIncidents(name, pageNumber, pageSize, PageCursor.decode(cursor));
+    }
+    
+    private PageResponse<IncidentResponse> loadCompanyIncidents(String name, int pageNumber, int pageSize,
+                                                                PageCursor pageCursor) {
+        long hotTotal = incidentMapper.countByCompanyName(name);
+        long archivedTotal = incidentArchiveService.countByCompanyName(name);
+        List<Incident> pagedIncidents = incidentArchiveService.findByCompanyName(name, IncidentSort.DATE_DESC,
+                pageCursor, pageNumber * pageSize, pageSize, hotTotal, archivedTotal);
+        long total = hotTotal + archivedTotal;
         
-        List<Incident> pagedIncidents = start < total ? allIncidents.subList(start, end) : List.of();
+        int totalPages = (int) ((total + pageSize - 1) / pageSize);
+        String nextCursor = null;
+        if (pagedIncidents.size() == pageSize) {
+            Incident last = pagedIncidents.get(pagedIncidents.size() - 1);
+            nextCursor = new PageCursor(last.getDate(), last.getId()).encode();
+        }
         
         return new PageResponse<>(
                 pagedIncidents.stream()
                         .map(this::toIncidentResponse)
                         .collect(Collectors.toList()),
-                (long) total,
+                total,
                 totalPages,
                 pageNumber + 1,
-                pageSize
+                pageSize,
+                nextCursor
         );
     }
     
@@ -92,7 +213,9 @@ public class CompanyService {
                 incident.getCategories(),
                 incident.getUserId(),
                 userResponse,
-                incident.getDate()
+                incident.getDate(),
+                incident.getCommentCount(),
+                incident.getLastCommentAt()
         );
     }
 }
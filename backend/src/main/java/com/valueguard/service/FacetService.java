@@ -0,0 +1,156 @@
+package com.valueguard.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.valueguard.config.CacheProperties;
+import com.valueguard.dto.incident.CategoryFacet;
+import com.valueguard.entity.CategoryCount;
+import com.valueguard.entity.Incident;
+import com.valueguard.event.IncidentCreatedEvent;
+import com.valueguard.mapper.CategoryCountMapper;
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.search.IncidentSearchIndex;
+import com.valueguard.util.AsyncCaches;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 分类筛选的计数。全站与公司的计数来自 incident_category_counts 预聚合表，
+ * 在内存中缓存，新事件提交后按范围失效；带搜索词时在搜索结果上现算。
+ */
+@Service
+public class FacetService {
+    
+    // 全站合计在计数表和缓存中的键
+    static final String ALL = "";
+    
+    private static final Comparator<CategoryFacet> BY_COUNT = Comparator
+            .comparingLong(CategoryFacet::getCount).reversed()
+            .thenComparing(CategoryFacet::getCategory);
+    
+    @Autowired
+    private CategoryCountMapper categoryCountMapper;
+    
+    @Autowired
+    private IncidentMapper incidentMapper;
+    
+    @Autowired
+    private IncidentSearchIndex searchIndex;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private CacheProperties cacheProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private AsyncCache<String, List<CategoryFacet>> facets;
+    
+    @PostConstruct
+    public void init() {
+        CacheProperties.Spec spec = cacheProperties.getFacets();
+        facets = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, spec.getMaxSize()))
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, facets, "facets");
+    }
+    
+    public List<CategoryFacet> getFacets(String search) {
+        String keyword = search != null && !search.trim().isEmpty() ? search.trim() : null;
+        if (keyword == null) {
+            return cached(ALL);
+        }
+        Map<String, Long> counts = searchIndex.categoryCounts(keyword);
+        if (counts != null) {
+            return counts.entrySet().stream()
+                    .map(entry -> new CategoryFacet(entry.getKey(), entry.getValue()))
+                    .sorted(BY_COUNT)
+                    .collect(Collectors.toList());
+        }
+        return toFacets(incidentMapper.countCategoriesBySearch(keyword));
+    }
+    
+    public List<CategoryFacet> getCompanyFacets(String companyName) {
+        if (companyName == null || companyName.isBlank()) {
+            throw new RuntimeException("公司名称不能为空");
+        }
+        return cached(companyName);
+    }
+    
+    private List<CategoryFacet> cached(String companyName) {
+        // 计数表中的公司名称已去掉首尾空格，查询和缓存键都用去空格后的名称
+        String trimmed = companyName.trim();
+        if (!cacheProperties.getFacets().isEnabled()) {
+            return load(trimmed);
+        }
+        // 公司名称按规范化后的形式缓存，与数据库的大小写不敏感比较一致
+        return AsyncCaches.get(facets, CompanyCacheService.canonicalName(trimmed), key -> load(trimmed));
+    }
+    
+    private List<CategoryFacet> load(String companyName) {
+        return toFacets(categoryCountMapper.findByCompanyName(companyName));
+    }
+    
+    /**
+     * 一批事件对计数表的增量：每个分类在全站和所属公司各加一，按主键排序。公司名称去掉首尾空格，与读取时一致。
+     * 由写入事件的一方在插入分类的同一事务内调用 CategoryCountMapper.addCounts。
+     */
+    static List<CategoryCount> countsFor(Collection<Incident> incidents) {
+        Map<String, Map<String, Long>> deltas = new TreeMap<>();
+        for (Incident incident : incidents) {
+            if (incident.getCategories() == null) {
+                continue;
+            }
+            for (String category : new LinkedHashSet<>(incident.getCategories())) {
+                deltas.computeIfAbsent(ALL, name -> new TreeMap<>()).merge(category, 1L, Long::sum);
+                deltas.computeIfAbsent(incident.getCompanyName().trim(), name -> new TreeMap<>()).merge(category, 1L, Long::sum);
+            }
+        }
+        List<CategoryCount> rows = new ArrayList<>();
+        deltas.forEach((companyName, categories) -> categories.forEach((category, delta) ->
+                rows.add(new CategoryCount(companyName, category, delta))));
+        return rows;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncidentCreated(IncidentCreatedEvent event) {
+        facets.synchronous().invalidateAll(List.of(ALL, CompanyCacheService.canonicalName(event.getIncident().getCompanyName())));
+    }
+    
+    /**
+     * 按 incident_categories 及其归档表重建全部计数，返回写入的行数。重建期间提交的事件可能被重复计入一次，下次重建时修正。
+     */
+    public int rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            categoryCountMapper.deleteAll();
+            return categoryCountMapper.insertTotals() + categoryCountMapper.insertCompanyCounts();
+        });
+        facets.synchronous().invalidateAll();
+        return rows != null ? rows : 0;
+    }
+    
+    private static List<CategoryFacet> toFacets(List<CategoryCount> rows) {
+        return rows.stream()
+                .map(row -> new CategoryFacet(row.getCategory(), row.getIncidentCount()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,206 @@
+package com.valueguard.service;
+
+import com.valueguard.config.ArchiveProperties;
+import com.valueguard.dto.PageCursor;
+import com.valueguard.dto.incident.IncidentSort;
+import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentVersion;
+import com.valueguard.mapper.IncidentArchiveMapper;
+import com.valueguard.mapper.IncidentMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 热表与归档表的分层读取。按日期排序的列表先读热表，倒序翻过热表末尾、或正序游标还在热数据窗口之前时才查询归档表；
+ * 按 ID 读取时热表未命中才查归档表。按评论数、活跃时间排序和数据库搜索只覆盖热表。
+ */
+@Service
+public class IncidentArchiveService {
+
+    @Autowired
+    private IncidentMapper incidentMapper;
+
+    @Autowired
+    private IncidentArchiveMapper archiveMapper;
+
+    @Autowired
+    private ArchiveProperties archiveProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 归档表只由归档任务写入，条数在启动和每次归档后刷新
+    private volatile long archivedCount;
+
+    private Counter listReads;
+    private Counter detailReads;
+
+    @PostConstruct
+    public void init() {
+        listReads = Counter.builder("incidents.archive.reads").tag("path", "list").register(meterRegistry);
+        detailReads = Counter.builder("incidents.archive.reads").tag("path", "detail").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        if (archiveProperties.isEnabled()) {
+            archivedCount = archiveMapper.countAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return archiveProperties.isEnabled();
+    }
+
+    /**
+     * 热数据窗口的起点：当前月份往前 hotMonths 个月的月初，早于它的事件会被归档。
+     */
+    public LocalDateTime cutoff() {
+        return LocalDate.now().withDayOfMonth(1)
+                .minusMonths(Math.max(1, archiveProperties.getHotMonths()))
+                .atStartOfDay();
+    }
+
+    /**
+     * 该排序的列表是否包含归档事件。
+     */
+    public boolean covers(IncidentSort sort) {
+        return isEnabled() && !sort.isByCommentCount() && !sort.isByActivity();
+    }
+
+    public long countAll() {
+        return isEnabled() ? archivedCount : 0L;
+    }
+
+    public long countByCompanyName(String companyName) {
+        return isEnabled() ? archiveMapper.countByCompanyName(companyName) : 0L;
+    }
+
+    /**
+     * 全站事件列表的一页，已加载分类。hotCount/archivedCount 为两张表的总数，只在按页码翻页跨表时使用。
+     */
+    public List<Incident> findAll(IncidentSort sort, PageCursor cursor, int offset, int limit,
+                                  long hotCount, long archivedCount) {
+        return findPage(sort, cursor, offset, limit,
+                (c, o, l) -> incidentMapper.findAll(sort, c, o, l), hotCount,
+                (c, o, l) -> archiveMapper.findAll(sort, c, o, l), archivedCount);
+    }
+
+    public List<Incident> findByCompanyName(String companyName, IncidentSort sort, PageCursor cursor, int offset,
+                                            int limit, long hotCount, long archivedCount) {
+        return findPage(sort, cursor, offset, limit,
+                (c, o, l) -> incidentMapper.findByCompanyName(companyName, sort, c, o, l), hotCount,
+                (c, o, l) -> archiveMapper.findByCompanyName(companyName, sort, c, o, l), archivedCount);
+    }
+
+    public Incident findById(String id) {
+        Incident incident = incidentMapper.findById(id);
+        if (incident != null) {
+            incidentMapper.hydrateCategories(List.of(incident));
+            return incident;
+        }
+        if (!isEnabled()) {
+            return null;
+        }
+        incident = archiveMapper.findById(id);
+        if (incident != null) {
+            detailReads.increment();
+            archiveMapper.hydrateCategories(List.of(incident));
+        }
+        return incident;
+    }
+
+    /**
+     * 批量按 ID 加载并加载分类，顺序不定；热表中缺少的 ID 再到归档表中查找。
+     */
+    public List<Incident> findByIds(Collection<String> ids) {
+        List<Incident> incidents = incidentMapper.hydrateCategories(incidentMapper.findByIds(ids));
+        if (!isEnabled() || incidents.size() == ids.size()) {
+            return incidents;
+        }
+        Set<String> missing = new HashSet<>(ids);
+        incidents.forEach(incident -> missing.remove(incident.getId()));
+        List<Incident> archived = archiveMapper.hydrateCategories(archiveMapper.findByIds(missing));
+        if (!archived.isEmpty()) {
+            detailReads.increment();
+        }
+        List<Incident> result = new ArrayList<>(incidents);
+        result.addAll(archived);
+        return result;
+    }
+
+    public IncidentVersion findVersionById(String id) {
+        IncidentVersion version = incidentMapper.findVersionById(id);
+        if (version == null && isEnabled()) {
+            version = archiveMapper.findVersionById(id);
+        }
+        return version;
+    }
+
+    /**
+     * 事件是否已归档。只在热表中找不到该事件时调用。
+     */
+    public boolean isArchived(String id) {
+        return isEnabled() && archiveMapper.existsById(id);
+    }
+
+    private List<Incident> findPage(IncidentSort sort, PageCursor cursor, int offset, int limit,
+                                    PageQuery hot, long hotCount, PageQuery archive, long archivedCount) {
+        if (!covers(sort)) {
+            return incidentMapper.hydrateCategories(hot.find(cursor, offset, limit));
+        }
+        // 倒序先热后冷；正序先冷后热，游标已在窗口之内时归档表中不会再有更晚的事件
+        boolean archiveFirst = sort.isAscending();
+        if (archiveFirst && cursor != null && !cursor.getTime().isBefore(cutoff())) {
+            return incidentMapper.hydrateCategories(hot.find(cursor, offset, limit));
+        }
+
+        List<Incident> page;
+        if (archiveFirst) {
+            listReads.increment();
+            page = archiveMapper.hydrateCategories(archive.find(cursor, offset, limit));
+        } else {
+            page = incidentMapper.hydrateCategories(hot.find(cursor, offset, limit));
+        }
+        if (page.size() == limit) {
+            return page;
+        }
+
+        // 第一张表已读完：有结果时从最后一条之后接着读，否则沿用原游标，按页码翻页时扣掉第一张表的条数
+        PageCursor next = cursor;
+        int nextOffset = (int) Math.max(0, offset - (archiveFirst ? archivedCount : hotCount));
+        if (!page.isEmpty()) {
+            Incident last = page.get(page.size() - 1);
+            next = new PageCursor(last.getDate(), last.getId());
+        }
+        int remaining = limit - page.size();
+        List<Incident> rest;
+        if (archiveFirst) {
+            rest = incidentMapper.hydrateCategories(hot.find(next, nextOffset, remaining));
+        } else {
+            listReads.increment();
+            rest = archiveMapper.hydrateCategories(archive.find(next, nextOffset, remaining));
+        }
+        List<Incident> result = new ArrayList<>(page);
+        result.addAll(rest);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<Incident> find(PageCursor cursor, int offset, int limit);
+    }
+}
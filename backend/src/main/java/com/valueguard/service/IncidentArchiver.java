@@ -0,0 +1,176 @@
+package com.valueguard.service;
+
+import com.valueguard.config.ArchiveProperties;
+import com.valueguard.entity.IncidentPartition;
+import com.valueguard.mapper.IncidentArchiveMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 把热数据窗口之外的事件连同分类、评论和审核请求移入归档表，每批一个事务，先复制再删除。
+ * 事件按 (date, id) 从旧到新归档；已归档的事件只读，不能再评论或提交审核请求。
+ * 公司事件计数和分类计数包含归档事件，归档不改变它们。
+ */
+@Service
+public class IncidentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentArchiver.class);
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private IncidentArchiveMapper archiveMapper;
+
+    @Autowired
+    private IncidentArchiveService incidentArchiveService;
+
+    @Autowired
+    private IncidentPageCache incidentPageCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ArchiveProperties archiveProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter incidentsArchived;
+
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        incidentsArchived = Counter.builder("incidents.archived").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void scheduledArchive() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Map<String, Object> result = archive();
+        log.info("Archived incidents older than {}: {} in {} ms",
+                incidentArchiveService.cutoff(), result, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 归档一轮并维护分区，返回各项数量。已有一轮在进行时直接返回。
+     */
+    public Map<String, Object> archive() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!archiveLock.tryLock()) {
+            result.put("incidentsArchived", 0);
+            return result;
+        }
+        try {
+            LocalDateTime cutoff = incidentArchiveService.cutoff();
+            int batchSize = Math.max(1, archiveProperties.getBatchSize());
+            int archived = 0;
+            List<String> ids;
+            do {
+                ids = archiveMapper.findIdsToArchive(cutoff, batchSize);
+                if (!ids.isEmpty()) {
+                    moveBatch(ids, cutoff);
+                    archived += ids.size();
+                    incidentsArchived.increment(ids.size());
+                }
+            } while (ids.size() == batchSize);
+            result.put("incidentsArchived", archived);
+
+            if (archiveProperties.isManagePartitions()) {
+                maintainPartitions(cutoff, result);
+            }
+            incidentArchiveService.refresh();
+            if (archived > 0) {
+                incidentPageCache.invalidateAll();
+            }
+            return result;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    private void moveBatch(List<String> ids, LocalDateTime cutoff) {
+        transactionTemplate.executeWithoutResult(status -> {
+            archiveMapper.archiveIncidents(ids, cutoff);
+            archiveMapper.archiveCategories(ids);
+            archiveMapper.archiveComments(ids);
+            archiveMapper.archiveReviewRequests(ids);
+            // 先删子表，未分区时外键的级联删除也就不会再删到未复制的行
+            archiveMapper.deleteReviewRequests(ids);
+            archiveMapper.deleteComments(ids);
+            archiveMapper.deleteCategories(ids);
+            archiveMapper.deleteIncidents(ids, cutoff);
+        });
+    }
+
+    /**
+     * 删除窗口之外已清空的月分区，让按 ID 查找需要探查的分区数保持稳定；
+     * 再从 p_future 中拆出未来几个月的分区。
+     */
+    private void maintainPartitions(LocalDateTime cutoff, Map<String, Object> result) {
+        List<String> partitions = archiveMapper.findPartitions();
+        if (partitions.isEmpty()) {
+            log.warn("archive.manage-partitions is set but incidents is not partitioned, run db/partitioning.sql first");
+            return;
+        }
+
+        YearMonth cutoffMonth = YearMonth.from(cutoff);
+        YearMonth lastMonth = null;
+        List<String> dropped = new ArrayList<>();
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            if (month == null) {
+                continue;
+            }
+            if (month.isBefore(cutoffMonth) && !archiveMapper.hasRowsInPartition(partition)) {
+                archiveMapper.dropPartition(partition);
+                dropped.add(partition);
+            } else if (lastMonth == null || month.isAfter(lastMonth)) {
+                lastMonth = month;
+            }
+        }
+
+        List<IncidentPartition> added = new ArrayList<>();
+        YearMonth target = YearMonth.now().plusMonths(Math.max(1, archiveProperties.getFuturePartitions()));
+        YearMonth month = lastMonth != null ? lastMonth.plusMonths(1) : YearMonth.now();
+        for (; !month.isAfter(target); month = month.plusMonths(1)) {
+            added.add(new IncidentPartition(month.format(PARTITION_NAME), month.plusMonths(1).atDay(1)));
+        }
+        if (!added.isEmpty()) {
+            archiveMapper.addPartitions(added);
+        }
+        result.put("partitionsDropped", dropped);
+        result.put("partitionsAdded", added.stream().map(IncidentPartition::getName).collect(Collectors.toList()));
+    }
+
+    private static YearMonth monthOf(String partition) {
+        try {
+            return YearMonth.parse(partition, PARTITION_NAME);
+        } catch (DateTimeParseException e) {
+            // p_future
+            return null;
+        }
+    }
+}
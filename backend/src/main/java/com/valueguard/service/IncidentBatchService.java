@@ -0,0 +1,213 @@
+package com.valueguard.service;
+
+import com.valueguard.config.IncidentBatchProperties;
+import com.valueguard.dto.incident.BatchIncidentResponse;
+import com.valueguard.dto.incident.BatchIncidentResult;
+import com.valueguard.dto.incident.IncidentRequest;
+import com.valueguard.entity.Company;
+import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentCategory;
+import com.valueguard.entity.User;
+import com.valueguard.event.IncidentCreatedEvent;
+import com.valueguard.mapper.CategoryCountMapper;
+import com.valueguard.mapper.IncidentMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入事件。公司一次性解析，事件与分类按块以多行 INSERT 写入，
+ * 每块一个事务；某块失败时块内事件逐条重试，以便给出每条事件各自的结果。
+ */
+@Service
+public class IncidentBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentBatchService.class);
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private IncidentBatchProperties batchProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter incidentsCreated;
+
+    // BATCH 执行器，块内语句在提交时一并发送；同一事务内的语句都要经过同一执行器
+    private IncidentMapper batchIncidentMapper;
+    private CategoryCountMapper batchCategoryCountMapper;
+
+    @PostConstruct
+    public void init() {
+        SqlSessionTemplate batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        batchIncidentMapper = batchSession.getMapper(IncidentMapper.class);
+        batchCategoryCountMapper = batchSession.getMapper(CategoryCountMapper.class);
+        incidentsCreated = Counter.builder("incidents.created").tag("source", "batch").register(meterRegistry);
+    }
+
+    public BatchIncidentResponse createIncidents(List<IncidentRequest> requests, String userId) {
+        if (requests.size() > batchProperties.getMaxSize()) {
+            throw new RuntimeException("单次最多提交" + batchProperties.getMaxSize() + "条事件");
+        }
+        User user = userCacheService.findById(userId);
+        if (user == null) {
+            throw new RuntimeException("用户不存在");
+        }
+
+        List<BatchIncidentResult> results = new ArrayList<>();
+        List<Item> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error != null) {
+                results.add(BatchIncidentResult.failure(i, error));
+            } else {
+                valid.add(new Item(i, requests.get(i)));
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            Map<String, Company> companies = companyService.resolveOrCreateAll(valid.stream()
+                    .map(item -> item.request.getCompanyName())
+                    .collect(Collectors.toList()));
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            for (Item item : valid) {
+                item.incident = toIncident(item.request, companies, user, now);
+            }
+
+            int chunkSize = Math.max(1, batchProperties.getChunkSize());
+            for (int from = 0; from < valid.size(); from += chunkSize) {
+                List<Item> chunk = valid.subList(from, Math.min(valid.size(), from + chunkSize));
+                results.addAll(insertChunk(chunk));
+            }
+        }
+
+        results.sort(Comparator.comparingInt(BatchIncidentResult::getIndex));
+        int succeeded = (int) results.stream().filter(BatchIncidentResult::isSuccess).count();
+        return new BatchIncidentResponse(succeeded, results.size() - succeeded, results);
+    }
+
+    private List<BatchIncidentResult> insertChunk(List<Item> chunk) {
+        try {
+            insertInTransaction(chunk);
+            incidentsCreated.increment(chunk.size());
+            return chunk.stream()
+                    .map(item -> BatchIncidentResult.success(item.index, item.incident.getId()))
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            log.warn("Batch insert of {} incidents failed, retrying one by one", chunk.size(), e);
+        }
+
+        List<BatchIncidentResult> results = new ArrayList<>();
+        for (Item item : chunk) {
+            try {
+                insertInTransaction(List.of(item));
+                incidentsCreated.increment();
+                results.add(BatchIncidentResult.success(item.index, item.incident.getId()));
+            } catch (RuntimeException e) {
+                results.add(BatchIncidentResult.failure(item.index, "保存失败"));
+            }
+        }
+        return results;
+    }
+
+    private void insertInTransaction(List<Item> items) {
+        List<Incident> incidents = items.stream().map(item -> item.incident).collect(Collectors.toList());
+        List<IncidentCategory> categories = new ArrayList<>();
+        for (Incident incident : incidents) {
+            for (String category : new LinkedHashSet<>(incident.getCategories())) {
+                categories.add(new IncidentCategory(incident.getId(), category));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            batchIncidentMapper.insertBatch(incidents);
+            if (!categories.isEmpty()) {
+                batchIncidentMapper.insertCategoriesBatch(categories);
+                batchCategoryCountMapper.addCounts(FacetService.countsFor(incidents));
+            }
+            // 事件在提交后才会分发
+            incidents.forEach(incident -> eventPublisher.publishEvent(new IncidentCreatedEvent(incident)));
+        });
+    }
+
+    private String validate(IncidentRequest request) {
+        if (request == null) {
+            return "事件不能为空";
+        }
+        Set<ConstraintViolation<IncidentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getCategories() == null) {
+            return "至少需要选择一个分类";
+        }
+        return null;
+    }
+
+    private Incident toIncident(IncidentRequest request, Map<String, Company> companies, User user, LocalDateTime now) {
+        Company company = companies.get(CompanyCacheService.canonicalName(request.getCompanyName()));
+        Incident incident = new Incident();
+        incident.setId(UUID.randomUUID().toString());
+        incident.setCompanyName(request.getCompanyName());
+        incident.setCompanyId(company.getId());
+        incident.setTitle(request.getTitle());
+        incident.setDescription(request.getDescription());
+        incident.setCategories(request.getCategories());
+        incident.setUserId(user.getUid());
+        incident.setUser(user);
+        incident.setDate(now);
+        incident.setCreatedAt(now);
+        incident.setUpdatedAt(now);
+        return incident;
+    }
+
+    private static class Item {
+        private final int index;
+        private final IncidentRequest request;
+        private Incident incident;
+
+        private Item(int index, IncidentRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+}
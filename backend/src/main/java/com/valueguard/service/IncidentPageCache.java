@@ -0,0 +1,120 @@
+package com.valueguard.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.valueguard.config.CacheProperties;
+import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.dto.incident.IncidentSort;
+import com.valueguard.event.IncidentCreatedEvent;
+import com.valueguard.util.AsyncCaches;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 事件列表和公司事件列表热门页的响应缓存，所有用户共享。
+ * 新事件提交后按范围失效：全站列表（含搜索）全部失效，公司列表只失效该公司；
+ * TTL 只是兜底。各列表的加载逻辑由对应的 Service 注册。
+ */
+@Service
+public class IncidentPageCache {
+    
+    public static final String ALL = "all";
+    public static final String COMPANY = "company";
+    
+    @Autowired
+    private CacheProperties cacheProperties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // 过期页的后台刷新在应用任务线程池上执行，开启虚拟线程后为虚拟线程
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+    
+    private final Map<String, Function<Key, PageResponse<IncidentResponse>>> loaders = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private AsyncLoadingCache<Key, PageResponse<IncidentResponse>> pages;
+    
+    private TransactionTemplate primary;
+    
+    @PostConstruct
+    public void init() {
+        primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        CacheProperties.PageSpec spec = cacheProperties.getIncidentPages();
+        pages = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, spec.getMaxSize()))
+                .expireAfterWrite(spec.getTtl())
+                .refreshAfterWrite(spec.getRefreshAfter())
+                .executor(taskExecutor)
+                .recordStats()
+                .buildAsync(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "incident-pages");
+    }
+    
+    public void register(String scope, Function<Key, PageResponse<IncidentResponse>> loader) {
+        loaders.put(scope, loader);
+    }
+    
+    /**
+     * 只缓存不带游标的前几页，其余请求直接查询。
+     */
+    public boolean isCacheable(int page, String cursor) {
+        CacheProperties.PageSpec spec = cacheProperties.getIncidentPages();
+        return spec.isEnabled() && page <= spec.getMaxPage() && (cursor == null || cursor.isBlank());
+    }
+    
+    public PageResponse<IncidentResponse> get(Key key) {
+        return AsyncCaches.get(pages, key, this::load);
+    }
+    
+    // 共享缓存只从主库加载：新事件提交后立即失效，此时副本可能还没复制到它，从副本加载的旧页会被所有人
+    // （包括刚发布的用户）读到直到下次刷新。调用方处于只读方法中，这里挂起它另开一个读写事务，
+    // 只读标记不再生效；计数和分页也在同一快照上
+    private PageResponse<IncidentResponse> load(Key key) {
+        return primary.execute(status -> loaders.get(key.getScope()).apply(key));
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncidentCreated(IncidentCreatedEvent event) {
+        String company = CompanyCacheService.canonicalName(event.getIncident().getCompanyName());
+        pages.asMap().keySet().removeIf(key -> ALL.equals(key.getScope()) || company.equals(key.getCompany()));
+    }
+    
+    public void invalidateAll() {
+        pages.synchronous().invalidateAll();
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Key {
+        private String scope;
+        // 规范化的公司名称，仅公司列表使用
+        private String company;
+        private String search;
+        private IncidentSort sort;
+        private int page;
+        private int size;
+    }
+}
@@ -1,22 +1,40 @@
 package com.valueguard.service;
 
+import com.valueguard.dto.PageCursor;
 import com.valueguard.dto.PageResponse;
 import com.valueguard.dto.incident.IncidentRequest;
 import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.dto.incident.IncidentSort;
+import com.valueguard.entity.Company;
 import com.valueguard.entity.Incident;
+import com.valueguard.entity.IncidentVersion;
 import com.valueguard.entity.ReviewRequest;
 import com.valueguard.entity.User;
-import com.valueguard.mapper.CompanyMapper;
+import com.valueguard.event.IncidentCreatedEvent;
+import com.valueguard.mapper.CategoryCountMapper;
 import com.valueguard.mapper.IncidentMapper;
 import com.valueguard.mapper.ReviewRequestMapper;
-import com.valueguard.mapper.UserMapper;
+import com.valueguard.search.IncidentSearchIndex;
+import com.valueguard.search.SearchResult;
+import com.valueguard.util.ETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,97 +44,208 @@ public class IncidentService {
     private IncidentMapper incidentMapper;
 
     @Autowired
-    private UserMapper userMapper;
+    private UserCacheService userCacheService;
 
     @Autowired
-    private CompanyMapper companyMapper;
+    private CompanyService companyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
     private ReviewRequestMapper reviewRequestMapper;
 
-    @Transactional
+    @Autowired
+    private CategoryCountMapper categoryCountMapper;
+
+    @Autowired
+    private IncidentSearchIndex searchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IncidentPageCache incidentPageCache;
+
+    @Autowired
+    private IncidentArchiveService incidentArchiveService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter incidentsCreated;
+
     public IncidentResponse createIncident(IncidentRequest request, String userId) {
-        User user = userMapper.findById(userId);
+        User user = userCacheService.findById(userId);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
 
+        // 在事务外查找或创建公司，其他并发创建同名公司的请求不会拿到未提交的数据
+        Company company = companyService.resolveOrCreate(request.getCompanyName());
+
         String incidentId = UUID.randomUUID().toString();
         Incident incident = new Incident();
         incident.setId(incidentId);
         incident.setCompanyName(request.getCompanyName());
+        incident.setCompanyId(company.getId());
         incident.setTitle(request.getTitle());
         incident.setDescription(request.getDescription());
-        incident.setCategories(request.getCategories());
+        incident.setCategories(request.getCategories() != null ? request.getCategories() : new ArrayList<>());
         incident.setUserId(userId);
-        incident.setDate(LocalDateTime.now());
-        incident.setCreatedAt(LocalDateTime.now());
-        incident.setUpdatedAt(LocalDateTime.now());
-
-        // 尝试查找或创建公司
-        com.valueguard.entity.Company company = companyMapper.findByNameIgnoreCase(request.getCompanyName());
-        if (company != null) {
-            incident.setCompanyId(company.getId());
-        }
+        incident.setUser(user);
+        // 时间由服务端生成并写入，响应直接使用，不再回查；DATETIME 不保存小数秒
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        incident.setDate(now);
+        incident.setCreatedAt(now);
+        incident.setUpdatedAt(now);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            incidentMapper.insert(incident);
+            
+            // 插入分类，并累加全站和公司的分类计数
+            if (incident.getCategories() != null && !incident.getCategories().isEmpty()) {
+                incidentMapper.insertCategories(incidentId, incident.getCategories());
+                categoryCountMapper.addCounts(FacetService.countsFor(List.of(incident)));
+            }
+
+            eventPublisher.publishEvent(new IncidentCreatedEvent(incident));
+        });
+        incidentsCreated.increment();
+
+        return toIncidentResponse(incident, user);
+    }
 
-        incidentMapper.insert(incident);
+    @PostConstruct
+    public void init() {
+        incidentsCreated = Counter.builder("incidents.created").tag("source", "single").register(meterRegistry);
+        registerPageLoader();
+    }
+
+    private void registerPageLoader() {
+        incidentPageCache.register(IncidentPageCache.ALL, key -> loadIncidents(
+                key.getPage() - 1, key.getSize(), key.getSearch(), key.getSort(), null));
+    }
+
+    // 只读且不开启真正的事务：不增加往返，缓存命中时也不占用连接；开启副本时路由到副本（缓存页从主库加载）
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public PageResponse<IncidentResponse> getIncidents(int page, int size, String search, String sort, String cursor) {
+        int pageNumber = Math.max(0, page - 1);
+        int pageSize = Math.max(1, Math.min(100, size));
+        IncidentSort incidentSort = IncidentSort.from(sort);
+        String keyword = search != null && !search.trim().isEmpty() ? search.trim() : null;
         
-        // 插入分类
-        if (incident.getCategories() != null && !incident.getCategories().isEmpty()) {
-            incidentMapper.insertCategories(incidentId, incident.getCategories());
+        if (incidentPageCache.isCacheable(pageNumber + 1, cursor)) {
+            return incidentPageCache.get(new IncidentPageCache.Key(
+                    IncidentPageCache.ALL, null, keyword, incidentSort, pageNumber + 1, pageSize));
         }
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        if (pageCursor != null && !matches(pageCursor, incidentSort)) {
+            throw new RuntimeException("无效的分页游标");
+        }
+        return loadIncidents(pageNumber, pageSize, keyword, incidentSort, pageCursor);
+    }
 
-        // 重新查询以获取完整数据
-        Incident saved = incidentMapper.findById(incidentId);
-        if (saved == null) {
-            throw new RuntimeException("创建事件失败");
+    // 游标必须来自同一种排序，否则排序键对不上
+    private static boolean matches(PageCursor cursor, IncidentSort sort) {
+        if (sort.isByCommentCount()) {
+            return cursor.getCount() != null;
         }
+        return cursor.getCount() == null && (cursor.getTime() != null || sort.isByActivity());
+    }
 
-        return toIncidentResponse(saved, user);
+    private static PageCursor cursorAfter(Incident last, IncidentSort sort) {
+        if (sort.isByCommentCount()) {
+            return PageCursor.ofCount(last.getCommentCount(), last.getId());
+        }
+        if (sort.isByActivity()) {
+            return new PageCursor(last.getLastCommentAt(), last.getId());
+        }
+        return new PageCursor(last.getDate(), last.getId());
     }
 
-    public PageResponse<IncidentResponse> getIncidents(int page, int size, String search, String sort) {
-        int pageNumber = Math.max(0, page - 1);
-        int pageSize = Math.max(1, Math.min(100, size));
+    private PageResponse<IncidentResponse> loadIncidents(int pageNumber, int pageSize, String keyword,
+                                                         IncidentSort incidentSort, PageCursor pageCursor) {
+        int offset = pageNumber * pageSize;
         
-        List<Incident> allIncidents;
-        if (search != null && !search.trim().isEmpty()) {
-            allIncidents = incidentMapper.searchIncidents(search.trim());
+        List<Incident> pagedIncidents;
+        long total;
+        boolean ranked = false;
+        if (keyword != null) {
+            SearchResult result = searchIndex.search(keyword, offset, pageSize);
+            if (result != null) {
+                // 索引按相关度排序，只支持页码翻页；索引包含归档事件
+                pagedIncidents = findByIdsInOrder(result.getIds());
+                total = result.getTotal();
+                ranked = true;
+            } else {
+                // 数据库搜索只覆盖热表
+                pagedIncidents = incidentMapper.hydrateCategories(
+                        incidentMapper.searchIncidents(keyword, incidentSort, pageCursor, offset, pageSize));
+                total = incidentMapper.countSearch(keyword);
+            }
         } else {
-            allIncidents = incidentMapper.findAll();
+            long hotTotal = incidentMapper.countAll();
+            long archivedTotal = incidentArchiveService.covers(incidentSort) ? incidentArchiveService.countAll() : 0L;
+            pagedIncidents = incidentArchiveService.findAll(
+                    incidentSort, pageCursor, offset, pageSize, hotTotal, archivedTotal);
+            total = hotTotal + archivedTotal;
         }
         
-        // 手动分页
-        int total = allIncidents.size();
-        int totalPages = (total + pageSize - 1) / pageSize;
-        int start = pageNumber * pageSize;
-        int end = Math.min(start + pageSize, total);
-        
-        List<Incident> pagedIncidents = start < total ? allIncidents.subList(start, end) : List.of();
+        int totalPages = (int) ((total + pageSize - 1) / pageSize);
+        String nextCursor = null;
+        if (!ranked && pagedIncidents.size() == pageSize) {
+            Incident last = pagedIncidents.get(pagedIncidents.size() - 1);
+            nextCursor = cursorAfter(last, incidentSort).encode();
+        }
         
         return new PageResponse<>(
                 pagedIncidents.stream()
                         .map(this::toIncidentResponse)
                         .collect(Collectors.toList()),
-                (long) total,
+                total,
                 totalPages,
                 pageNumber + 1,
-                pageSize
+                pageSize,
+                nextCursor
         );
     }
 
+    private List<Incident> findByIdsInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Incident> byId = incidentArchiveService.findByIds(ids).stream()
+                .collect(Collectors.toMap(Incident::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public IncidentResponse getIncidentById(String id) {
-        Incident incident = incidentMapper.findById(id);
+        Incident incident = incidentArchiveService.findById(id);
         if (incident == null) {
             throw new RuntimeException("事件不存在");
         }
         return toIncidentResponse(incident);
     }
 
+    /**
+     * 详情的 ETag，只查更新时间和评论数；事件不存在时返回 null。
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public String getIncidentETag(String id) {
+        IncidentVersion version = incidentArchiveService.findVersionById(id);
+        return version != null ? ETags.of(id, version.getUpdatedAt(), version.getCommentCount()) : null;
+    }
+
     @Transactional
     public void submitReviewRequest(String incidentId, com.valueguard.dto.incident.ReviewRequest request) {
-        if (!incidentMapper.existsById(incidentId)) {
-            throw new RuntimeException("事件不存在");
+        // 锁住事件行直到提交：分区后没有外键，归档任务不能在检查与插入之间移走事件
+        if (incidentMapper.lockById(incidentId) == null) {
+            throw new RuntimeException(incidentArchiveService.isArchived(incidentId) ? "事件已归档" : "事件不存在");
         }
 
         ReviewRequest reviewRequest = new ReviewRequest();
@@ -124,13 +253,14 @@ public class IncidentService {
         reviewRequest.setIncidentId(incidentId);
         reviewRequest.setReview(request.getReview());
         reviewRequest.setStatus(ReviewRequest.ReviewStatus.PENDING);
-        reviewRequest.setCreatedAt(LocalDateTime.now());
-        reviewRequest.setUpdatedAt(LocalDateTime.now());
+        reviewRequest.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        reviewRequest.setUpdatedAt(reviewRequest.getCreatedAt());
 
         reviewRequestMapper.insert(reviewRequest);
     }
 
-    private IncidentResponse toIncidentResponse(Incident incident) {
+    // IncidentStreamService 推送新事件时复用同一转换
+    IncidentResponse toIncidentResponse(Incident incident) {
         User user = incident.getUser();
         com.valueguard.dto.auth.UserResponse userResponse = null;
         if (user != null) {
@@ -151,7 +281,9 @@ public class IncidentService {
                 incident.getCategories(),
                 incident.getUserId(),
                 userResponse,
-                incident.getDate()
+                incident.getDate(),
+                incident.getCommentCount(),
+                incident.getLastCommentAt()
         );
     }
 
@@ -172,7 +304,9 @@ public class IncidentService {
                 incident.getCategories(),
                 incident.getUserId(),
                 userResponse,
-                incident.getDate()
+                incident.getDate(),
+                incident.getCommentCount(),
+                incident.getLastCommentAt()
         );
     }
 }
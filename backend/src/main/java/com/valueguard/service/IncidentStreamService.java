@@ -0,0 +1,373 @@
+package com.valueguard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valueguard.config.IncidentStreamProperties;
+import com.valueguard.event.IncidentCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 新事件的 SSE 推送。
+ * 事件提交后序列化一次，追加到环形缓冲区；每个订阅者只记录已发送到的序号，
+ * 由写线程从缓冲区补发，因此空闲连接除 SseEmitter 外不占用线程和内存。
+ * 订阅者落后超过 maxLag 条即被断开，不拖慢其他订阅者；客户端带 Last-Event-ID 重连后从缓冲区续传，
+ * 缓冲区已覆盖或服务重启过时先收到 resync 事件，应重新拉取列表。
+ * 单次写入阻塞超过 writeTimeout 的连接同样断开，并为仍阻塞着的写线程补充一个线程，
+ * 慢连接不会占满写线程池而拖住其他订阅者。
+ */
+@Service
+public class IncidentStreamService {
+    
+    private static final Logger log = LoggerFactory.getLogger(IncidentStreamService.class);
+    
+    // 事件 ID 形如 "<启动时间>-<序号>"，重启后旧 ID 不会被误认为有效
+    private final String epoch = Long.toString(System.currentTimeMillis());
+    
+    @Autowired
+    private IncidentStreamProperties properties;
+    
+    @Autowired
+    private IncidentService incidentService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // 正在执行 send 的订阅者，包括已被断开、写线程仍阻塞着的
+    private final Map<Long, Subscriber> writers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    
+    // 已发布的最大序号；序号从 1 开始，槽位 seq % 容量
+    private final AtomicLong head = new AtomicLong();
+    private AtomicReferenceArray<StreamEvent> ring;
+    
+    private ThreadPoolExecutor dispatcher;
+    
+    // 写入超时后仍阻塞在 send 上的写线程数
+    private final AtomicInteger stalledWriters = new AtomicInteger();
+    
+    private Counter dropped;
+    private Counter stalled;
+    
+    @PostConstruct
+    public void init() {
+        ring = new AtomicReferenceArray<>(Math.max(properties.getReplayBufferSize(), properties.getMaxLag()));
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, properties.getDispatchThreads());
+        dispatcher = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "incident-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("incidents.stream.subscribers", subscribers, Map::size)
+                .register(meterRegistry);
+        dropped = Counter.builder("incidents.stream.dropped")
+                .description("因落后过多被断开的订阅者")
+                .register(meterRegistry);
+        stalled = Counter.builder("incidents.stream.stalled")
+                .description("因单次写入超时被断开的订阅者")
+                .register(meterRegistry);
+        Gauge.builder("incidents.stream.stalled.writers", stalledWriters, AtomicInteger::get)
+                .description("写入超时后仍阻塞着的写线程")
+                .register(meterRegistry);
+    }
+    
+    public SseEmitter subscribe(String lastEventId) {
+        if (!properties.isEnabled()) {
+            throw new RuntimeException("事件推送未开启");
+        }
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new RuntimeException("订阅人数已满，请稍后再试");
+        }
+        
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        long current = head.get();
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        Long resumeFrom = parseEventId(lastEventId);
+        if (resumeFrom != null && resumeFrom <= current && current - resumeFrom <= ring.length()) {
+            subscriber.cursor = resumeFrom;
+        } else {
+            subscriber.cursor = current;
+            subscriber.resync = lastEventId != null && !lastEventId.isBlank();
+        }
+        
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(error -> subscribers.remove(subscriber.id));
+        subscribers.put(subscriber.id, subscriber);
+        // 首次调度发送 retry 提示和待续传的事件
+        subscriber.schedule();
+        return emitter;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncidentCreated(IncidentCreatedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(incidentService.toIncidentResponse(event.getIncident()));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize incident {} for stream", event.getIncident().getId(), e);
+            return;
+        }
+        long seq = head.incrementAndGet();
+        ring.set(slot(seq), new StreamEvent(seq, data));
+        for (Subscriber subscriber : subscribers.values()) {
+            // 续传中的订阅者允许落后到缓冲区容量，追上之后才按 maxLag 限制
+            if (subscriber.caughtUp && seq - subscriber.cursor > properties.getMaxLag()) {
+                if (drop(subscriber)) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            subscriber.schedule();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "#{@incidentStreamProperties.heartbeatInterval.toMillis()}")
+    public void heartbeat() {
+        long idleSince = System.nanoTime() - properties.getHeartbeatInterval().toNanos();
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.lastWrite - idleSince <= 0) {
+                subscriber.heartbeatDue = true;
+                subscriber.schedule();
+            }
+        }
+    }
+    
+    /**
+     * 断开单次写入超过 writeTimeout 的订阅者。阻塞中的 send 无法从外部打断，要等容器的写超时才会返回，
+     * 期间为它补充一个写线程，补充数不超过 stalledWriteThreads。
+     */
+    @Scheduled(fixedDelayString = "#{@incidentStreamProperties.writeTimeout.toMillis()}")
+    public void checkStalledWrites() {
+        long deadline = System.nanoTime() - properties.getWriteTimeout().toNanos();
+        for (Subscriber subscriber : writers.values()) {
+            if (subscriber.writeStarted - deadline < 0 && subscriber.stall.compareAndSet(0, 1)) {
+                stalledWriters.incrementAndGet();
+                resizeDispatcher();
+                if (drop(subscriber)) {
+                    stalled.increment();
+                    log.debug("Dropped stream subscriber {} after a write blocked for over {}", subscriber.id,
+                            properties.getWriteTimeout());
+                }
+                // 写入恰好在标记前返回时由这里释放
+                if (!writers.containsKey(subscriber.id)) {
+                    subscriber.releaseStall();
+                }
+            }
+        }
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.closed = true;
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+    
+    /**
+     * 移除订阅者并结束其连接，返回是否由本次调用移除。
+     * complete 与 send 共用 emitter 的锁，调用方若直接 complete 会被阻塞在慢连接上，因此交给该订阅者的写任务执行。
+     */
+    private boolean drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id) == null) {
+            return false;
+        }
+        subscriber.closed = true;
+        subscriber.schedule();
+        return true;
+    }
+    
+    private void resizeDispatcher() {
+        int size = Math.max(1, properties.getDispatchThreads())
+                + Math.min(stalledWriters.get(), Math.max(0, properties.getStalledWriteThreads()));
+        synchronized (dispatcher) {
+            // 核心线程数不能大于最大线程数，扩容先调最大值，缩容先调核心数
+            if (size > dispatcher.getMaximumPoolSize()) {
+                dispatcher.setMaximumPoolSize(size);
+                dispatcher.setCorePoolSize(size);
+            } else if (size < dispatcher.getCorePoolSize()) {
+                dispatcher.setCorePoolSize(size);
+                dispatcher.setMaximumPoolSize(size);
+            }
+        }
+    }
+    
+    private int slot(long seq) {
+        return (int) (seq % ring.length());
+    }
+    
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+    
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private record StreamEvent(long seq, String data) {
+    }
+    
+    private class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        // 只在写线程中修改；发布方读取它判断落后程度
+        private volatile long cursor;
+        private volatile long lastWrite = System.nanoTime();
+        private volatile boolean resync;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        private volatile boolean caughtUp;
+        // 当前 send 的开始时间，供写入超时检查
+        private volatile long writeStarted;
+        // 0 正常，1 写入超时且写线程仍阻塞，2 阻塞的写入已返回
+        private final AtomicInteger stall = new AtomicInteger();
+        private boolean greeted;
+        private boolean completed;
+        // 待处理的调度次数，保证同一订阅者同时只有一个写任务
+        private final AtomicInteger pending = new AtomicInteger();
+        
+        private Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+        
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException e) {
+                    pending.set(0);
+                }
+            }
+        }
+        
+        private void drain() {
+            int missed = pending.get();
+            while (true) {
+                try {
+                    write();
+                } catch (IOException | RuntimeException e) {
+                    // 客户端已断开，容器会结束该异步请求
+                    subscribers.remove(id);
+                    closed = true;
+                    return;
+                }
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+        
+        private void write() throws IOException {
+            if (closed) {
+                if (!completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+                return;
+            }
+            if (!greeted) {
+                send(SseEmitter.event().reconnectTime(properties.getReconnectDelay().toMillis()).comment("connected"));
+                greeted = true;
+            }
+            if (resync) {
+                send(SseEmitter.event().id(eventId(cursor)).name("resync").data("{}"));
+                resync = false;
+            }
+            long next = cursor + 1;
+            while (!closed && next <= head.get()) {
+                StreamEvent event = ring.get(slot(next));
+                if (event == null || event.seq() < next) {
+                    // 该序号的发布方尚未写入槽位，写入后会再次调度
+                    break;
+                }
+                if (event.seq() > next || head.get() - next >= ring.length()) {
+                    // 槽位已被覆盖，drop 会再次调度本任务结束连接
+                    if (drop(this)) {
+                        dropped.increment();
+                    }
+                    return;
+                }
+                send(SseEmitter.event().id(eventId(next)).name("incident").data(event.data()));
+                cursor = next;
+                next++;
+            }
+            if (next > head.get()) {
+                caughtUp = true;
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                if (!closed && System.nanoTime() - lastWrite >= properties.getHeartbeatInterval().toNanos()) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+        
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStarted = System.nanoTime();
+            writers.put(id, this);
+            try {
+                emitter.send(event);
+            } finally {
+                writers.remove(id);
+                releaseStall();
+            }
+            lastWrite = System.nanoTime();
+        }
+        
+        private void releaseStall() {
+            if (stall.compareAndSet(1, 2)) {
+                stalledWriters.decrementAndGet();
+                resizeDispatcher();
+            }
+        }
+    }
+}
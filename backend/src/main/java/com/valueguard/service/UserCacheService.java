@@ -0,0 +1,54 @@
+package com.valueguard.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.valueguard.config.CacheProperties;
+import com.valueguard.entity.User;
+import com.valueguard.mapper.UserMapper;
+import com.valueguard.util.AsyncCaches;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * 按 uid 缓存用户行，供确实需要用户资料的业务路径使用（请求认证本身不查库）。
+ * 返回的 User 实例是共享的，调用方不得修改；UserMapper 的写语句由
+ * {@link com.valueguard.config.UserCacheInvalidationInterceptor} 自动失效。
+ */
+@Service
+public class UserCacheService {
+    
+    @Autowired
+    private UserMapper userMapper;
+    
+    @Autowired
+    private CacheProperties cacheProperties;
+    
+    private AsyncCache<String, Optional<User>> users;
+    
+    @PostConstruct
+    public void init() {
+        CacheProperties.Spec spec = cacheProperties.getUser();
+        users = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, spec.getMaxSize()))
+                .expireAfterWrite(spec.getTtl())
+                .buildAsync();
+    }
+    
+    public User findById(String uid) {
+        if (!cacheProperties.getUser().isEnabled()) {
+            return userMapper.findById(uid);
+        }
+        return AsyncCaches.get(users, uid, key -> Optional.ofNullable(userMapper.findById(key))).orElse(null);
+    }
+    
+    public void invalidate(String uid) {
+        users.synchronous().invalidate(uid);
+    }
+    
+    public void invalidateAll() {
+        users.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,55 @@
+package com.valueguard.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 在调用线程中加载 Caffeine 缓存。
+ * Cache.get(key, loader) 在 ConcurrentHashMap 的桶锁（synchronized）内执行 loader，
+ * 虚拟线程在其中等待数据库时会固定在载体线程上；这里先放入未完成的 future 再在锁外加载，
+ * 同一键的并发请求等待同一次加载。加载期间键被失效时，结果不会写回缓存。
+ */
+public final class AsyncCaches {
+    
+    private AsyncCaches() {
+    }
+    
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return await(cached);
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = cache.asMap().putIfAbsent(key, load);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.apply(key);
+            // null 结果和异常都会让 Caffeine 自动移除该条目
+            load.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Error 也要通知等待者，否则它们会一直阻塞在 join() 上
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
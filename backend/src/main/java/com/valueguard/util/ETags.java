@@ -0,0 +1,23 @@
+package com.valueguard.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * 由版本信息（更新时间、条数、查询参数等）生成强 ETag，不需要序列化响应体。
+ */
+public final class ETags {
+    
+    private ETags() {
+    }
+    
+    public static String of(Object... parts) {
+        String version = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -1,36 +1,139 @@
 package com.valueguard.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.valueguard.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     
+    public static final String AUTHORITIES_CLAIM = "authorities";
+    
+    public static final String DEFAULT_AUTHORITY = "ROLE_USER";
+    
     @Autowired
     private JwtProperties jwtProperties;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // 已验签的令牌，键为令牌的 SHA-256 摘要，条目在令牌 exp 时刻过期
+    private Cache<String, Claims> verifiedTokens;
+    
+    // 令牌解析耗时，按结果区分：cached 命中缓存、verified 完整验签、invalid 验签失败
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer invalidTimer;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, jwtProperties.getCacheMaxSize()))
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        cachedTimer = Timer.builder("jwt.verification").tag("outcome", "cached").register(meterRegistry);
+        verifiedTimer = Timer.builder("jwt.verification").tag("outcome", "verified").register(meterRegistry);
+        invalidTimer = Timer.builder("jwt.verification").tag("outcome", "invalid").register(meterRegistry);
     }
     
     public String generateToken(String uid) {
+        return generateToken(uid, List.of(DEFAULT_AUTHORITY));
+    }
+    
+    public String generateToken(String uid, List<String> authorities) {
         return Jwts.builder()
                 .subject(uid)
+                .claim(AUTHORITIES_CLAIM, authorities)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
+    /**
+     * 验签并解析令牌，签名无效或已过期时抛出 JwtException。
+     * 同一令牌只完整解析一次，之后直接命中缓存。
+     */
+    public Claims parseToken(String token) {
+        long start = System.nanoTime();
+        Timer timer = invalidTimer;
+        try {
+            if (jwtProperties.getCacheMaxSize() <= 0) {
+                Claims claims = parser.parseSignedClaims(token).getPayload();
+                timer = verifiedTimer;
+                return claims;
+            }
+            String key = digest(token);
+            Claims claims = verifiedTokens.getIfPresent(key);
+            if (claims != null) {
+                timer = cachedTimer;
+                return claims;
+            }
+            claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(key, claims);
+            timer = verifiedTimer;
+            return claims;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * 读取令牌中携带的权限，旧令牌没有该声明时视为普通用户。
+     */
+    public List<String> extractAuthorities(Claims claims) {
+        Object value = claims.get(AUTHORITIES_CLAIM);
+        if (!(value instanceof Collection<?> authorities) || authorities.isEmpty()) {
+            return List.of(DEFAULT_AUTHORITY);
+        }
+        return authorities.stream().map(String::valueOf).toList();
+    }
+    
     public String extractUid(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -40,25 +143,25 @@ public class JwtUtil {
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
     
     public Boolean validateToken(String token, String uid) {
-        final String extractedUid = extractUid(token);
-        return (extractedUid.equals(uid) && !isTokenExpired(token));
+        final Claims claims = parseToken(token);
+        return (claims.getSubject().equals(uid) && !claims.getExpiration().before(new Date()));
+    }
+    
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
-
@@ -0,0 +1,48 @@
+package com.valueguard.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 合并同一个键上的并发调用：第一个调用者执行，其余调用者等待并共享它的结果（或异常）。
+ * 执行结束后键即被移除，不缓存结果。
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = supplier.get();
+            call.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Error 也要通知等待者，否则它们会一直阻塞在 join() 上
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+    
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+-- ValueGuard：incidents 按月 RANGE 分区（仅 MySQL 8.0+）
+-- 在 upgrade.sql 之后执行一次，执行前请备份。ALTER 会重建 incidents 表，期间写入被阻塞，请在低峰期执行。
+-- 执行后设置 archive.manage-partitions=true，由归档任务追加未来月份的分区、删除已清空的旧分区。
+--
+-- 分区表有两个限制：
+--   1. 不支持外键。删除 incidents 自身以及引用 incidents 的外键，关联数据由应用和归档任务维护；
+--   2. 主键必须包含分区列。主键改为 (id, date)，按 id 查找时每个分区各做一次主键查找，
+--      归档任务把分区数保持在热数据窗口的月数左右。
+
+SET SESSION group_concat_max_len = 1000000;
+
+-- 外键名由 MySQL 生成，从 information_schema 查出后删除
+SET @ddl = COALESCE((SELECT CONCAT('ALTER TABLE incidents ',
+                                   GROUP_CONCAT('DROP FOREIGN KEY `', constraint_name, '`' SEPARATOR ', '))
+                     FROM information_schema.referential_constraints
+                     WHERE constraint_schema = DATABASE() AND table_name = 'incidents'), 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = COALESCE((SELECT CONCAT('ALTER TABLE incident_categories ',
+                                   GROUP_CONCAT('DROP FOREIGN KEY `', constraint_name, '`' SEPARATOR ', '))
+                     FROM information_schema.referential_constraints
+                     WHERE constraint_schema = DATABASE() AND table_name = 'incident_categories'
+                       AND referenced_table_name = 'incidents'), 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = COALESCE((SELECT CONCAT('ALTER TABLE comments ',
+                                   GROUP_CONCAT('DROP FOREIGN KEY `', constraint_name, '`' SEPARATOR ', '))
+                     FROM information_schema.referential_constraints
+                     WHERE constraint_schema = DATABASE() AND table_name = 'comments'
+                       AND referenced_table_name = 'incidents'), 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = COALESCE((SELECT CONCAT('ALTER TABLE review_requests ',
+                                   GROUP_CONCAT('DROP FOREIGN KEY `', constraint_name, '`' SEPARATOR ', '))
+                     FROM information_schema.referential_constraints
+                     WHERE constraint_schema = DATABASE() AND table_name = 'review_requests'
+                       AND referenced_table_name = 'incidents'), 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE incidents
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, date);
+
+-- 从最早一条事件所在月份到当前月份之后 3 个月，每月一个分区，命名为 pYYYYMM；
+-- p_future 接住更晚的日期，归档任务从中拆出新的月分区
+SET @first_month = (SELECT CAST(DATE_FORMAT(COALESCE(MIN(date), NOW()), '%Y-%m-01') AS DATE) FROM incidents);
+SET @last_month = CAST(DATE_FORMAT(NOW(), '%Y-%m-01') AS DATE) + INTERVAL 3 MONTH;
+SET @ddl = (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT @first_month
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start < @last_month
+    )
+    SELECT CONCAT('ALTER TABLE incidents PARTITION BY RANGE COLUMNS(date) (',
+                  GROUP_CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                               ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, ''')'
+                               ORDER BY month_start SEPARATOR ', '),
+                  ', PARTITION p_future VALUES LESS THAN (MAXVALUE))')
+    FROM months
+);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,94 @@
+-- ValueGuard 数据库升级脚本
+-- 已有数据库按顺序执行尚未执行过的部分；全新安装直接使用 schema.sql 即可。
+
+-- 事件列表键集分页：(date, id) 复合索引取代单列 date 索引
+ALTER TABLE incidents
+    ADD INDEX idx_date_id (date, id),
+    DROP INDEX idx_date;
+
+-- 公司事件列表按 (company_name, date, id) 分页
+ALTER TABLE incidents
+    ADD INDEX idx_company_date_id (company_name, date, id),
+    DROP INDEX idx_company_name;
+
+-- 评论列表按 (incident_id, created_at, id) 键集分页
+ALTER TABLE comments
+    ADD INDEX idx_incident_created_id (incident_id, created_at, id),
+    DROP INDEX idx_incident_id;
+
+-- 公司事件计数改为增量维护，启动时由应用校准
+ALTER TABLE companies
+    ADD COLUMN incident_count BIGINT NOT NULL DEFAULT 0 AFTER logo_url;
+ALTER TABLE incidents
+    ADD INDEX idx_company_id (company_id);
+
+-- 事件上冗余评论数与最后评论时间，供列表展示和"评论最多"/"最近活跃"排序
+ALTER TABLE incidents
+    ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0 AFTER updated_at,
+    ADD COLUMN last_comment_at DATETIME NULL AFTER comment_count,
+    ADD INDEX idx_comment_count_id (comment_count, id),
+    ADD INDEX idx_last_comment_id (last_comment_at, id);
+UPDATE incidents i
+SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.incident_id = i.id),
+    last_comment_at = (SELECT MAX(c.created_at) FROM comments c WHERE c.incident_id = i.id),
+    updated_at = updated_at;
+
+-- 分类筛选的计数由预聚合表提供，随事件写入增量维护
+CREATE TABLE IF NOT EXISTS incident_category_counts (
+    company_name VARCHAR(200) NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    incident_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (company_name, category)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+INSERT INTO incident_category_counts (company_name, category, incident_count)
+SELECT '', category, COUNT(*) FROM incident_categories GROUP BY category;
+INSERT INTO incident_category_counts (company_name, category, incident_count)
+SELECT i.company_name, ic.category, COUNT(*)
+FROM incident_categories ic
+JOIN incidents i ON i.id = ic.incident_id
+GROUP BY i.company_name, ic.category;
+
+-- 冷数据归档表，由归档任务（archive.enabled）写入；incidents 按月分区见 db/partitioning.sql
+CREATE TABLE IF NOT EXISTS incidents_archive (
+    id VARCHAR(50) PRIMARY KEY,
+    company_name VARCHAR(200) NOT NULL,
+    company_id VARCHAR(50),
+    title VARCHAR(500) NOT NULL,
+    description TEXT NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    date DATETIME NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    last_comment_at DATETIME NULL,
+    archived_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_company_date_id (company_name, date, id),
+    INDEX idx_company_id (company_id),
+    INDEX idx_date_id (date, id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS incident_categories_archive (
+    incident_id VARCHAR(50) NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    PRIMARY KEY (incident_id, category)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS comments_archive (
+    id VARCHAR(50) PRIMARY KEY,
+    text TEXT NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    incident_id VARCHAR(50) NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME,
+    INDEX idx_incident_created_id (incident_id, created_at, id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS review_requests_archive (
+    id VARCHAR(50) PRIMARY KEY,
+    incident_id VARCHAR(50) NOT NULL,
+    review TEXT NOT NULL,
+    status VARCHAR(20),
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME,
+    INDEX idx_incident_id (incident_id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -19,6 +19,7 @@ CREATE TABLE IF NOT EXISTS companies (
     id VARCHAR(50) PRIMARY KEY,
     name VARCHAR(200) NOT NULL UNIQUE,
     logo_url VARCHAR(500),
+    incident_count BIGINT NOT NULL DEFAULT 0,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_name (name)
@@ -35,9 +36,14 @@ CREATE TABLE IF NOT EXISTS incidents (
     date DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_company_name (company_name),
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    last_comment_at DATETIME NULL,
+    INDEX idx_company_date_id (company_name, date, id),
+    INDEX idx_company_id (company_id),
     INDEX idx_user_id (user_id),
-    INDEX idx_date (date),
+    INDEX idx_date_id (date, id),
+    INDEX idx_comment_count_id (comment_count, id),
+    INDEX idx_last_comment_id (last_comment_at, id),
     FOREIGN KEY (user_id) REFERENCES users(uid) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -50,6 +56,14 @@ CREATE TABLE IF NOT EXISTS incident_categories (
     INDEX idx_category (category)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- 分类计数表：每个公司各分类的事件数，company_name 为空字符串的行是全站合计；随事件写入增量维护
+CREATE TABLE IF NOT EXISTS incident_category_counts (
+    company_name VARCHAR(200) NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    incident_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (company_name, category)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- 评论表
 CREATE TABLE IF NOT EXISTS comments (
     id VARCHAR(50) PRIMARY KEY,
@@ -58,7 +72,7 @@ CREATE TABLE IF NOT EXISTS comments (
     incident_id VARCHAR(50) NOT NULL,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_incident_id (incident_id),
+    INDEX idx_incident_created_id (incident_id, created_at, id),
     INDEX idx_user_id (user_id),
     INDEX idx_created_at (created_at),
     FOREIGN KEY (user_id) REFERENCES users(uid) ON DELETE CASCADE,
@@ -78,3 +92,49 @@ CREATE TABLE IF NOT EXISTS review_requests (
     FOREIGN KEY (incident_id) REFERENCES incidents(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- 归档表：热数据窗口之外的事件连同分类、评论和审核请求由归档任务整体移入，只读；
+-- 压缩行格式，只保留读取所需的索引，不设外键
+CREATE TABLE IF NOT EXISTS incidents_archive (
+    id VARCHAR(50) PRIMARY KEY,
+    company_name VARCHAR(200) NOT NULL,
+    company_id VARCHAR(50),
+    title VARCHAR(500) NOT NULL,
+    description TEXT NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    date DATETIME NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    last_comment_at DATETIME NULL,
+    archived_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_company_date_id (company_name, date, id),
+    INDEX idx_company_id (company_id),
+    INDEX idx_date_id (date, id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS incident_categories_archive (
+    incident_id VARCHAR(50) NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    PRIMARY KEY (incident_id, category)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS comments_archive (
+    id VARCHAR(50) PRIMARY KEY,
+    text TEXT NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    incident_id VARCHAR(50) NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME,
+    INDEX idx_incident_created_id (incident_id, created_at, id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS review_requests_archive (
+    id VARCHAR(50) PRIMARY KEY,
+    incident_id VARCHAR(50) NOT NULL,
+    review TEXT NOT NULL,
+    status VARCHAR(20),
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME,
+    INDEX idx_incident_id (incident_id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
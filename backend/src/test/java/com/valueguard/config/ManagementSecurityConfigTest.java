@@ -0,0 +1,60 @@
+package com.valueguard.config;
+
+import com.valueguard.support.H2Databases;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 管理端点的访问控制：只读的监控端点开放，会改写数据的端点需要管理账号。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "search.enabled=false",
+        "counters.reconcile-on-startup=false",
+        "incident-stream.enabled=false",
+        // 与业务接口同端口，MockMvc 才能访问到管理端点
+        "management.server.port=",
+        "management-auth.password=s3cret"
+})
+@AutoConfigureMockMvc
+class ManagementSecurityConfigTest {
+
+    private static final String URL = H2Databases.create("management");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void monitoringEndpointsAreOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isOk());
+    }
+
+    @Test
+    void writeEndpointsRequireManagementAccount() throws Exception {
+        mockMvc.perform(post("/actuator/archive")).andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/actuator/counters").with(httpBasic("ops", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/actuator/archive").with(httpBasic("ops", "s3cret")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,99 @@
+package com.valueguard.config;
+
+import com.valueguard.entity.Incident;
+import com.valueguard.mapper.IncidentMapper;
+import com.valueguard.search.IncidentSearchIndex;
+import com.valueguard.search.SearchResult;
+import com.valueguard.support.H2Databases;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 事件修改后按新内容搜到、删除后搜不到，回滚的修改不影响索引。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "search.enabled=true",
+        "counters.reconcile-on-startup=false",
+        "incident-stream.enabled=false",
+        "management.server.port="
+})
+class SearchIndexInvalidationInterceptorTest {
+
+    private static final String URL = seed(H2Databases.create("search-index"));
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private IncidentSearchIndex searchIndex;
+
+    @Autowired
+    private IncidentMapper incidentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void updateReindexesAndDeleteRemoves() throws InterruptedException {
+        for (int i = 0; i < 100 && !searchIndex.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(search("widget").getIds()).containsExactlyInAnyOrder("i-1", "i-2");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            incidentMapper.update(retitled("i-1", "gadget"));
+            status.setRollbackOnly();
+        });
+        assertThat(search("widget").getIds()).containsExactlyInAnyOrder("i-1", "i-2");
+
+        transactionTemplate.executeWithoutResult(status -> incidentMapper.update(retitled("i-1", "gadget")));
+        assertThat(search("widget").getIds()).containsExactly("i-2");
+        assertThat(search("widget").getTotal()).isEqualTo(1);
+        assertThat(search("gadget").getIds()).containsExactly("i-1");
+
+        incidentMapper.deleteById("i-2");
+        assertThat(search("widget").getIds()).isEmpty();
+        assertThat(search("widget").getTotal()).isZero();
+        assertThat(searchIndex.size()).isEqualTo(1);
+    }
+
+    private SearchResult search(String query) {
+        return searchIndex.search(query, 0, 10);
+    }
+
+    private Incident retitled(String id, String title) {
+        Incident incident = incidentMapper.findById(id);
+        incident.setTitle(title);
+        return incident;
+    }
+
+    private static String seed(String url) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbc.update("INSERT INTO users (uid, email, password, display_name) VALUES ('u-1', 'u1@example.com', 'x', 'u1')");
+        jdbc.update("INSERT INTO companies (id, name, incident_count) VALUES ('c-1', 'Acme', 2)");
+        for (String id : new String[] {"i-1", "i-2"}) {
+            jdbc.update("INSERT INTO incidents (id, company_name, company_id, title, description, user_id, date, created_at)"
+                    + " VALUES (?, 'Acme', 'c-1', 'widget', 'description', 'u-1', ?, ?)",
+                    id, LocalDateTime.now(), LocalDateTime.now());
+        }
+        return url;
+    }
+}
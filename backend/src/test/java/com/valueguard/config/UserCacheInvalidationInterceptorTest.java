@@ -0,0 +1,70 @@
+package com.valueguard.config;
+
+import com.valueguard.entity.User;
+import com.valueguard.mapper.UserMapper;
+import com.valueguard.service.UserCacheService;
+import com.valueguard.support.H2Databases;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserMapper 写入后，缓存的用户行（包括“不存在”的结果）不再被读到。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "search.enabled=false",
+        "counters.reconcile-on-startup=false",
+        "incident-stream.enabled=false",
+        "management.server.port="
+})
+class UserCacheInvalidationInterceptorTest {
+
+    private static final String URL = H2Databases.create("user-cache");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void insertUpdateAndDeleteInvalidateTheCachedUser() {
+        assertThat(userCacheService.findById("u-cache")).isNull();
+
+        userMapper.insert(user("u-cache", "before"));
+        assertThat(userCacheService.findById("u-cache").getDisplayName()).isEqualTo("before");
+
+        transactionTemplate.executeWithoutResult(status -> userMapper.update(user("u-cache", "after")));
+        assertThat(userCacheService.findById("u-cache").getDisplayName()).isEqualTo("after");
+
+        userMapper.deleteById("u-cache");
+        assertThat(userCacheService.findById("u-cache")).isNull();
+    }
+
+    private static User user(String uid, String displayName) {
+        User user = new User();
+        user.setUid(uid);
+        user.setEmail(uid + "@example.com");
+        user.setPassword("x");
+        user.setDisplayName(displayName);
+        return user;
+    }
+}
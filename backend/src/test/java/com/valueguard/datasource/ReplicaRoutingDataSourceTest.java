@@ -0,0 +1,196 @@
+package com.valueguard.datasource;
+
+import com.valueguard.config.ReplicaProperties;
+import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.auth.EmailSignupRequest;
+import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.dto.incident.ReviewRequest;
+import com.valueguard.service.AuthService;
+import com.valueguard.service.IncidentService;
+import com.valueguard.support.H2Databases;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 两个内存 H2 分别作为主库和副本，两边的数据故意不同，由读到哪条事件判断请求被路由到了哪个库。
+ * 副本的复制延迟从 replica_status 表中读取，由测试控制。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "replica.enabled=true",
+        "replica.username=sa",
+        "replica.password=",
+        "replica.driver-class-name=org.h2.Driver",
+        "replica.hikari.minimum-idle=1",
+        "replica.lag-query=SELECT seconds_behind FROM replica_status",
+        "replica.lag-column=seconds_behind",
+        "replica.max-lag=2s",
+        // 由测试手动检查延迟，定时检查不干扰
+        "replica.lag-check-interval=1h",
+        "search.enabled=false",
+        "counters.reconcile-on-startup=false",
+        "incident-stream.enabled=false",
+        "management.server.port="
+})
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = H2Databases.create("routing-primary");
+    private static final String REPLICA_URL = H2Databases.create("routing-replica");
+
+    static {
+        seed(new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", "")), "primary-incident");
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        seed(replica, "replica-incident");
+        replica.execute("CREATE TABLE replica_status (seconds_behind DOUBLE)");
+        replica.update("INSERT INTO replica_status VALUES (0)");
+    }
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("replica.url", () -> REPLICA_URL);
+    }
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ReplicaProperties replicaProperties;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        setLag(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        setLag(0);
+    }
+
+    @Test
+    void readOnlyCallsGoToReplica() {
+        assertThat(incidentService.getIncidentById("replica-incident").getId()).isEqualTo("replica-incident");
+        assertThatThrownBy(() -> incidentService.getIncidentById("primary-incident"))
+                .hasMessage("事件不存在");
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        EmailSignupRequest request = new EmailSignupRequest();
+        request.setEmail("writer@example.com");
+        request.setPassword("secret123");
+        authService.signupWithEmail(request);
+
+        String sql = "SELECT COUNT(*) FROM users WHERE email = 'writer@example.com'";
+        assertThat(primary.queryForObject(sql, Long.class)).isEqualTo(1L);
+        assertThat(replica.queryForObject(sql, Long.class)).isZero();
+    }
+
+    @Test
+    void writerReadsStayOnPrimaryWithinStickiness() {
+        authenticate("sticky-writer");
+        ReviewRequest request = new ReviewRequest();
+        request.setReview("这条事件的描述与事实不符，请管理员尽快审核处理。");
+        incidentService.submitReviewRequest("primary-incident", request);
+
+        assertThat(incidentService.getIncidentById("primary-incident").getId()).isEqualTo("primary-incident");
+
+        // 其他用户不受影响，仍读副本
+        authenticate("other-reader");
+        assertThatThrownBy(() -> incidentService.getIncidentById("primary-incident"))
+                .hasMessage("事件不存在");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaLags() {
+        setLag(10);
+        assertThat(incidentService.getIncidentById("primary-incident").getId()).isEqualTo("primary-incident");
+
+        setLag(0);
+        assertThat(incidentService.getIncidentById("replica-incident").getId()).isEqualTo("replica-incident");
+    }
+
+    @Test
+    void replicaIsUnavailableWhenLagCheckIsStale() throws InterruptedException {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setLagQuery(replicaProperties.getLagQuery());
+        properties.setLagColumn(replicaProperties.getLagColumn());
+        properties.setLagCheckInterval(Duration.ofMillis(20));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource, properties, new SimpleMeterRegistry());
+
+        assertThat(monitor.isAvailable()).isFalse();
+        monitor.check();
+        assertThat(monitor.isAvailable()).isTrue();
+        // 超过三个检查周期没有新结果
+        Thread.sleep(100);
+        assertThat(monitor.isAvailable()).isFalse();
+    }
+
+    @Test
+    void sharedPageCacheLoadsFromPrimary() {
+        PageResponse<IncidentResponse> page = incidentService.getIncidents(1, 20, null, null, null);
+
+        List<String> ids = page.getContent().stream().map(IncidentResponse::getId).toList();
+        assertThat(ids).containsExactly("primary-incident");
+    }
+
+    private void setLag(double seconds) {
+        replica.update("UPDATE replica_status SET seconds_behind = ?", seconds);
+        lagMonitor.check();
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+
+    private static void seed(JdbcTemplate jdbc, String incidentId) {
+        jdbc.update("INSERT INTO users (uid, email, password, display_name) VALUES ('u-1', 'u1@example.com', 'x', 'u1')");
+        jdbc.update("INSERT INTO companies (id, name, incident_count) VALUES ('c-1', 'Acme', 1)");
+        jdbc.update("INSERT INTO incidents (id, company_name, company_id, title, description, user_id, date)"
+                + " VALUES (?, 'Acme', 'c-1', 'title', 'description', 'u-1', CURRENT_TIMESTAMP)", incidentId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.valueguard.service;
+
+import com.valueguard.mapper.CompanyMapper;
+import com.valueguard.support.H2Databases;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 计数写回期间，公司接口读到的计数（缓存的库值加未写回的增量）不应倒退。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "counters.reconcile-on-startup=false",
+        // 由测试手动写回
+        "counters.flush-interval-ms=3600000",
+        "search.enabled=false",
+        "incident-stream.enabled=false",
+        "management.server.port="
+})
+class CompanyIncidentCounterTest {
+
+    private static final String URL = H2Databases.create("counter");
+
+    static {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbc.update("INSERT INTO companies (id, name, incident_count) VALUES ('c-1', 'Acme', 5)");
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private CompanyIncidentCounter counter;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private SqlSessionTemplate sqlSessionTemplate;
+
+    @SpyBean
+    private CompanyMapper companyMapper;
+
+    @Test
+    void countDoesNotGoBackwardsWhileFlushing() {
+        assertThat(count()).isEqualTo(5);
+        counter.increment("c-1", 3);
+        assertThat(count()).isEqualTo(8);
+
+        // Mapper 是接口代理，Mockito 无法调用真实方法，改由未包装的 Mapper 执行
+        CompanyMapper realMapper = sqlSessionTemplate.getMapper(CompanyMapper.class);
+        List<Long> duringFlush = new ArrayList<>();
+        doAnswer(invocation -> {
+            duringFlush.add(count());
+            Object result = realMapper.addIncidentCounts(invocation.getArgument(0));
+            duringFlush.add(count());
+            return result;
+        }).when(companyMapper).addIncidentCounts(any());
+        counter.flush();
+
+        assertThat(duringFlush).containsExactly(8L, 8L);
+        assertThat(count()).isEqualTo(8);
+        assertThat(counter.pendingDelta("c-1")).isZero();
+    }
+
+    private long count() {
+        return companyService.getCompanyByName("Acme").getIncidentCount();
+    }
+}
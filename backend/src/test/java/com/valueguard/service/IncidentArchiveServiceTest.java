@@ -0,0 +1,167 @@
+package com.valueguard.service;
+
+import com.valueguard.dto.PageResponse;
+import com.valueguard.dto.comment.CommentRequest;
+import com.valueguard.dto.comment.CommentResponse;
+import com.valueguard.dto.incident.IncidentResponse;
+import com.valueguard.support.H2Databases;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 部分事件归档后，按页码和按游标翻页拼出的序列应与两张表合在一起排序的结果一致，
+ * 跨表的一页、同一时间的多条事件（按 id 决胜）都要覆盖。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "archive.enabled=true",
+        "cache.incident-pages.enabled=false",
+        "search.enabled=false",
+        "counters.reconcile-on-startup=false",
+        "incident-stream.enabled=false",
+        "management.server.port="
+})
+class IncidentArchiveServiceTest {
+
+    private static final String URL = H2Databases.create("archive");
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    // 前四条早于热数据窗口，会被归档；o-a/o-b、h-a/h-b 时间相同
+    private static final Map<String, LocalDateTime> DATES = Map.of(
+            "o-a", NOW.minusYears(3),
+            "o-b", NOW.minusYears(3),
+            "o-c", NOW.minusYears(2),
+            "o-d", NOW.minusMonths(14),
+            "h-a", NOW.minusDays(3),
+            "h-b", NOW.minusDays(3),
+            "h-c", NOW.minusDays(1));
+
+    private static final Comparator<String> DATE_DESC = Comparator
+            .comparing((String id) -> DATES.get(id)).thenComparing(Comparator.naturalOrder()).reversed();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @BeforeAll
+    static void seed(@Autowired IncidentArchiver archiver) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbc.update("INSERT INTO users (uid, email, password, display_name) VALUES ('u-1', 'u1@example.com', 'x', 'u1')");
+        jdbc.update("INSERT INTO companies (id, name, incident_count) VALUES ('c-1', 'Acme', 5)");
+        jdbc.update("INSERT INTO companies (id, name, incident_count) VALUES ('c-2', 'Other', 2)");
+        DATES.forEach((id, date) -> jdbc.update(
+                "INSERT INTO incidents (id, company_name, company_id, title, description, user_id, date, created_at)"
+                        + " VALUES (?, ?, ?, 'title', 'description', 'u-1', ?, ?)",
+                id, company(id), "Acme".equals(company(id)) ? "c-1" : "c-2", date, date));
+        jdbc.update("INSERT INTO comments (id, text, user_id, incident_id, created_at) VALUES ('m-1', 'old', 'u-1', 'o-c', ?)",
+                DATES.get("o-c"));
+        jdbc.update("UPDATE incidents SET comment_count = 1 WHERE id = 'o-c'");
+
+        assertThat(archiver.archive()).containsEntry("incidentsArchived", 4);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"date,desc,1", "date,desc,2", "date,desc,3", "date,desc,5", "date,desc,8",
+            "date,asc,1", "date,asc,2", "date,asc,3", "date,asc,5", "date,asc,8"})
+    void pageNumbersSpanBothTables(String field, String direction, int size) {
+        String sort = field + "," + direction;
+        List<String> ids = new ArrayList<>();
+        PageResponse<IncidentResponse> page;
+        int pageNumber = 1;
+        do {
+            page = incidentService.getIncidents(pageNumber++, size, null, sort, null);
+            assertThat(page.getTotalElements()).isEqualTo(DATES.size());
+            page.getContent().forEach(incident -> ids.add(incident.getId()));
+        } while (page.getContent().size() == size);
+
+        assertThat(ids).isEqualTo(expected(direction, null));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"date,desc,1", "date,desc,2", "date,desc,3", "date,desc,5",
+            "date,asc,1", "date,asc,2", "date,asc,3", "date,asc,5"})
+    void cursorsSpanBothTables(String field, String direction, int size) {
+        String sort = field + "," + direction;
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponse<IncidentResponse> page = incidentService.getIncidents(1, size, null, sort, cursor);
+            page.getContent().forEach(incident -> ids.add(incident.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).isEqualTo(expected(direction, null));
+    }
+
+    @Test
+    void companyListSpansBothTables() {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponse<IncidentResponse> page = companyService.getCompanyIncidents("Acme", 1, 2, cursor);
+            assertThat(page.getTotalElements()).isEqualTo(5);
+            page.getContent().forEach(incident -> ids.add(incident.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).isEqualTo(expected("desc", "Acme"));
+    }
+
+    @Test
+    void archivedIncidentIsReadOnly() {
+        assertThat(incidentService.getIncidentById("o-c").getCommentCount()).isEqualTo(1);
+
+        List<CommentResponse> comments = commentService.getComments("o-c", 1, 20, null, null).getContent();
+        assertThat(comments).extracting(CommentResponse::getId).containsExactly("m-1");
+
+        CommentRequest request = new CommentRequest();
+        request.setComment("new comment");
+        assertThatThrownBy(() -> commentService.createComment("o-c", request, "u-1"))
+                .hasMessage("事件已归档，不能再评论");
+    }
+
+    private static List<String> expected(String direction, String company) {
+        Comparator<String> order = "asc".equals(direction) ? DATE_DESC.reversed() : DATE_DESC;
+        return DATES.keySet().stream()
+                .filter(id -> company == null || company.equals(company(id)))
+                .sorted(order)
+                .toList();
+    }
+
+    private static String company(String id) {
+        return id.equals("o-b") || id.equals("h-b") ? "Other" : "Acme";
+    }
+}
@@ -0,0 +1,72 @@
+package com.valueguard.support;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 测试用的内存 H2 库（MySQL 兼容模式），建表语句来自 schema.sql。
+ * MySQL 的索引名只需在表内唯一，H2 要求在整个库内唯一，因此加载前给索引名加上表名前缀。
+ */
+public final class H2Databases {
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE IF NOT EXISTS (\\w+)");
+    private static final Pattern INDEX = Pattern.compile("\\b(UNIQUE )?INDEX (\\w+)");
+
+    private H2Databases() {
+    }
+
+    public static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;"
+                + "IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * 创建名为 name 的库并建表，返回 JDBC URL。库在 JVM 退出前一直存在。
+     */
+    public static String create(String name) {
+        String url = url(name);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ByteArrayResource(schema().getBytes(StandardCharsets.UTF_8)));
+        } catch (SQLException e) {
+            throw new IllegalStateException("无法创建测试库 " + name, e);
+        }
+        return url;
+    }
+
+    private static String schema() {
+        String schema;
+        try (InputStream in = new ClassPathResource("schema.sql").getInputStream()) {
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        StringBuilder rewritten = new StringBuilder();
+        String table = null;
+        for (String line : schema.split("\n")) {
+            Matcher createTable = CREATE_TABLE.matcher(line);
+            if (createTable.find()) {
+                table = createTable.group(1);
+            }
+            if (table != null) {
+                Matcher index = INDEX.matcher(line);
+                String prefix = table;
+                line = index.replaceAll(match -> Matcher.quoteReplacement(
+                        (match.group(1) != null ? match.group(1) : "") + "INDEX " + prefix + "_" + match.group(2)));
+            }
+            rewritten.append(line).append('\n');
+        }
+        return rewritten.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.valueguard.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class AsyncCachesTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> AsyncCaches.get(cache, "acme", key -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        started.await();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> AsyncCaches.get(cache, "acme", key -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(first.get()).isEqualTo("value");
+        assertThat(second.get()).isEqualTo("value");
+        assertThat(loads).hasValue(1);
+        assertThat(AsyncCaches.get(cache, "acme", key -> "reloaded")).isEqualTo("value");
+    }
+
+    @Test
+    void errorIsPropagatedAndNotCached() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> AsyncCaches.get(cache, "acme", key -> {
+            started.countDown();
+            await(release);
+            throw new OutOfMemoryError("test");
+        }));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            started.await();
+            CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> AsyncCaches.get(cache, "acme", key -> "other"));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(first::join).hasCauseInstanceOf(OutOfMemoryError.class);
+            assertThatThrownBy(waiter::join).hasCauseInstanceOf(OutOfMemoryError.class);
+        });
+        // 失败的加载不会占着缓存条目
+        assertThat(cache.getIfPresent("acme")).isNull();
+        assertThat(AsyncCaches.get(cache, "acme", key -> "retry")).isEqualTo("retry");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
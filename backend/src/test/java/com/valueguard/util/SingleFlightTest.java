@@ -0,0 +1,72 @@
+package com.valueguard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("acme", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        started.await();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("acme", () -> {
+            executions.incrementAndGet();
+            return "other";
+        }));
+        // 第二个调用者已在等待第一个的结果
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(first.get()).isEqualTo("value");
+        assertThat(second.get()).isEqualTo("value");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void errorIsPropagatedToWaiters() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("acme", () -> {
+            started.countDown();
+            await(release);
+            throw new StackOverflowError();
+        }));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            started.await();
+            CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute("acme", () -> "other"));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(first::join).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(waiter::join).hasCauseInstanceOf(StackOverflowError.class);
+        });
+        // 失败的调用不会留在进行中的表里
+        assertThat(singleFlight.execute("acme", () -> "retry")).isEqualTo("retry");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}